@@ -0,0 +1,112 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        VectorTextFilter is a `TextFilter` that filters a whole vector of
+        bytes at a time with the Vector API (jdk.incubator.vector), 32 or 64
+        bytes per step depending on the hardware.
+        A vector holding only ASCII bytes has every byte that isn't a letter,
+        blank, or newline replaced by a blank in one blend. Vectors holding
+        bytes of multibyte characters are filtered byte by byte by
+        `TextFilter` instead.
+    Usage:
+        Get an instance through `TextFilter.create()`, which only returns one
+        when the module is available. Kept out of `src/` so that the rest
+        compiles without the module; compile it after `src/` with
+            javac --add-modules jdk.incubator.vector -cp out -d out
+                    src-vector/*.java
+        and run with `--add-modules jdk.incubator.vector`.
+        Requires `TextFilter` to work.
+ */
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorTextFilter extends TextFilter
+{
+    private static final VectorSpecies<Byte> SPECIES =
+            ByteVector.SPECIES_PREFERRED;
+
+    private static final ByteVector BLANKS =
+            ByteVector.broadcast(SPECIES, (byte)' ');
+
+    // filters `bytes[0, length)` in place, a vector at a time where the bytes
+    // are all ASCII
+    @Override
+    int filterBlock(byte[] bytes, int length, boolean endOfInput)
+    {
+        int read = 0;
+        int write = 0;
+        int vectorLength = SPECIES.length();
+
+        while (read < length)
+        {
+            if (read + vectorLength <= length)
+            {
+                ByteVector v = ByteVector.fromArray(SPECIES, bytes, read);
+
+                // ASCII bytes are the non negative ones
+                if (!v.compare(VectorOperators.LT, (byte)0).anyTrue())
+                {
+                    // setting bit 0x20 turns upper case letters into lower
+                    // case ones without turning anything else into a letter
+                    ByteVector lowercase = v.or((byte)0x20);
+
+                    VectorMask<Byte> isAllowed = lowercase
+                            .compare(VectorOperators.GE, (byte)'a')
+                            .and(lowercase.compare(VectorOperators.LE, (byte)'z'))
+                            .or(v.compare(VectorOperators.EQ, (byte)' '))
+                            .or(v.compare(VectorOperators.EQ, (byte)'\n'));
+
+                    // the output never gets ahead of the input, so writing
+                    // at `write` only overwrites bytes that have already
+                    // been read
+                    v.blend(BLANKS, isAllowed.not()).intoArray(bytes, write);
+
+                    read += vectorLength;
+                    write += vectorLength;
+                    continue;
+                }
+            }
+
+            // filter byte by byte until the end of the vector that couldn't
+            // be filtered as a whole, or the end of the block
+            int end = Math.min(read + vectorLength, length);
+
+            while (read < end)
+            {
+                byte b = bytes[read];
+
+                if (b >= 0)
+                {
+                    bytes[write++] = ASCII_TABLE[b];
+                    read++;
+                    continue;
+                }
+
+                int written = filterMultibyte(
+                        bytes,
+                        read,
+                        write,
+                        length,
+                        endOfInput);
+
+                // the character continues in the next block
+                if (consumed == 0)
+                {
+                    consumed = read;
+                    return write;
+                }
+
+                read += consumed;
+                write += written;
+            }
+        }
+
+        consumed = read;
+        return write;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        AllocationMeter measures what a piece of code costs the garbage
+        collector: the bytes allocated by the current thread, and the
+        number, total time, and longest of the collection pauses, from the
+        moment the meter is created or reset.
+        The allocated bytes are read from the thread allocation counter of
+        the JVM, which is exact and cheap enough to read around every
+        iteration of a benchmark. The pauses are reported by the collectors
+        as they end; concurrent collection cycles, which don't stop the
+        program, are left out.
+        The pauses are reported on a thread of the JVM shortly after they
+        end, so a pause right before `reset` or a read may be counted on the
+        wrong side of it.
+    Usage:
+        Create a meter, run the code to measure, and read the meter. Call
+        `close` when done so that the meter stops listening for pauses.
+        Run the main method with a number of millions of Integers to box to
+        see the meter at work.
+        Requires a JVM with `com.sun.management` (HotSpot or OpenJ9) to
+        work.
+ */
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+public class AllocationMeter implements AutoCloseable
+{
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    private final NotificationListener listener = this::onCollection;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    private long startBytes;
+
+    // the pauses since the last reset, written by the thread reporting them
+    private long pauses;
+    private long pauseMillis;
+    private long longestPauseMillis;
+
+    public AllocationMeter()
+    {
+        if (!THREADS.isThreadAllocatedMemoryEnabled())
+        {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            if (gc instanceof NotificationEmitter)
+            {
+                NotificationEmitter emitter = (NotificationEmitter)gc;
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+
+        reset();
+    }
+
+    // counts a pause reported by a collector
+    private void onCollection(Notification notification, Object handback)
+    {
+        if (!notification.getType().equals(
+                GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION))
+        {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                (CompositeData)notification.getUserData());
+
+        // the concurrent cycles of G1 and ZGC run next to the program
+        String name = info.getGcName();
+        if (name.contains("Concurrent") || name.contains("Cycles"))
+        {
+            return;
+        }
+
+        long duration = info.getGcInfo().getDuration();
+
+        synchronized (this)
+        {
+            pauses++;
+            pauseMillis += duration;
+            longestPauseMillis = Math.max(longestPauseMillis, duration);
+        }
+    }
+
+    // starts measuring from now
+    public synchronized void reset()
+    {
+        startBytes = THREADS.getCurrentThreadAllocatedBytes();
+        pauses = 0;
+        pauseMillis = 0;
+        longestPauseMillis = 0;
+    }
+
+    // returns the bytes allocated by the current thread since the meter was
+    // created or reset; only meaningful on the thread that did so
+    public long allocatedBytes()
+    {
+        return THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+    }
+
+    // returns the number of collection pauses since the last reset
+    public synchronized long pauses()
+    {
+        return pauses;
+    }
+
+    // returns the total time of the collection pauses in milliseconds
+    public synchronized long pauseMillis()
+    {
+        return pauseMillis;
+    }
+
+    // returns the longest collection pause in milliseconds
+    public synchronized long longestPauseMillis()
+    {
+        return longestPauseMillis;
+    }
+
+    // stops listening for pauses
+    @Override
+    public void close()
+    {
+        for (NotificationEmitter emitter : emitters)
+        {
+            try
+            {
+                emitter.removeNotificationListener(listener);
+            }
+            catch (ListenerNotFoundException e)
+            {
+                // already removed, nothing to do
+            }
+        }
+
+        emitters.clear();
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format(
+                "{allocated: %d B, pauses: %d, pause time: %d ms, longest: %d ms}",
+                allocatedBytes(),
+                pauses,
+                pauseMillis,
+                longestPauseMillis);
+    }
+
+    // written with the boxed values so the boxing isn't optimized away
+    private static volatile Object sink;
+
+    // test method, boxes n million Integers and prints the meter, which
+    // should show about 16 bytes per Integer
+    public static void main(String[] args) throws InterruptedException
+    {
+        int count = (int)(Double.parseDouble(args[0]) * 1_000_000);
+
+        try (AllocationMeter meter = new AllocationMeter())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                // outside of the Integer cache, so every value is a new box
+                sink = Integer.valueOf(1_000 + i);
+            }
+
+            // give the collectors time to report their last pauses
+            Thread.sleep(100);
+
+            System.out.println(meter);
+            System.out.printf(
+                    "%.2f bytes per Integer\n",
+                    (double)meter.allocatedBytes() / count);
+        }
+    }
+}
@@ -1,11 +1,27 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/21
-    Updated: 2020/09/27
+    Updated: 2026/10/18
     Purpose:
         AssociativeArraySymbolTable attempts at implementing an associative array,
         a symbol table, through an ordered array of elements and binary search.
         This class only implements searching, retrieval, and appending.
+        The ordered array is split into blocks of at most `BLOCK_CAPACITY`
+        pairs, each sorted, with every key of a block less than every key of
+        the next one. A key is found by a binary search over the first keys
+        of the blocks and then one within its block, and putting a new key
+        only moves the larger pairs of its block, splitting the block in two
+        when it is full, instead of every larger pair of the table.
+        The keys and values of a block are kept in two arrays rather than as
+        an object per pair.
+        Keys can be looked for by position as well: `rank`, `floor`, and
+        `ceiling` take a single search, with the sizes of the blocks kept in
+        a Fenwick tree, and ranges of keys and keys with a prefix are walked
+        from their first key without going through the keys before it.
+        Tables that are built once and then only read can be filled with
+        `bulkLoad`, which sorts all the pairs at once instead of putting them
+        one at a time, and `freeze` copies the table into a
+        `FrozenSymbolTable` for the fastest lookups.
     Usage:
         Import the class to use the hash table or run the main method
         to run its tests. The input for the tests must be representation
@@ -13,114 +29,189 @@
  */
 import java.io.IOException;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class AssociativeArraySymbolTable<TKey extends Comparable<TKey>, TValue>
+        implements SymbolTable<TKey, TValue>
 {
-    private static class Pair<TKey, TValue>
+    // the most pairs a block holds. a new key moves at most this many pairs,
+    // and splitting a block moves the directory of blocks, which is this
+    // many times smaller than the table
+    static final int BLOCK_CAPACITY = 512;
+
+    // keys[b][0, sizes[b]) and values[b][0, sizes[b]) are the pairs of the
+    // block b, and firstKeys[b] is keys[b][0] kept in one array so that the
+    // directory can be searched without going through every block
+    private Object[][] keys;
+    private Object[][] values;
+    private int[] sizes;
+    private Object[] firstKeys;
+
+    // a Fenwick tree over the sizes of the blocks: counts[i] is the sum of
+    // the sizes of the (i & -i) blocks ending with block i - 1, so the
+    // number of pairs before any block is a sum of lg(blocks) counts
+    private int[] counts = new int[1];
+
+    private int blockCount;
+    private int size;
+
+    public AssociativeArraySymbolTable()
     {
-        public TKey Key;
-        public TValue Value;
+        keys = new Object[4][];
+        values = new Object[4][];
+        sizes = new int[4];
+        firstKeys = new Object[4];
+    }
 
-        @Override
-        public String toString()
-        {
-            return String.format("{%s, %s}", Key, Value);
-        }
+    // returns the number of pairs in the table
+    public int size()
+    {
+        return size;
     }
 
-    Pair<TKey, TValue>[] pairs;
-    int emptyIndex;
+    @SuppressWarnings("unchecked")
+    private TKey keyAt(int block, int index)
+    {
+        return (TKey)keys[block][index];
+    }
 
-    public AssociativeArraySymbolTable()
+    @SuppressWarnings("unchecked")
+    private TValue valueAt(int block, int index)
     {
-        pairs = (Pair<TKey, TValue>[])new Pair[8];
-        emptyIndex = 0;
+        return (TValue)values[block][index];
     }
 
-    // resizes to the specified size
-    private void resize(int newSize)
+    // builds the Fenwick tree of the block sizes again, after blocks have
+    // been inserted
+    private void rebuildCounts()
     {
-        Pair<TKey, TValue>[] newPairs = (Pair<TKey, TValue>[])new Pair[newSize];
+        if (counts.length < blockCount + 1)
+        {
+            counts = new int[keys.length + 1];
+        }
 
-        System.arraycopy(pairs, 0, newPairs, 0, pairs.length);
+        Arrays.fill(counts, 0);
 
-        pairs = newPairs;
+        for (int i = 1; i <= blockCount; i++)
+        {
+            counts[i] += sizes[i - 1];
+
+            // pass the sum on to the next count covering this one
+            int parent = i + (i & -i);
+            if (parent <= blockCount)
+            {
+                counts[parent] += counts[i];
+            }
+        }
     }
 
-    // adds a key and associated key into the table
-    public void put(TKey key, TValue value)
+    // adds one to the size of the block in the Fenwick tree
+    private void countPair(int block)
     {
-        Pair<TKey, TValue> p = new Pair<TKey, TValue>();
-        p.Key = key;
-        p.Value = value;
-
-        // if its the first element or bigger than the last element, place it
-        // at the last empty spot.
-        if (emptyIndex == 0 ||
-                key.compareTo(pairs[emptyIndex - 1].Key) > -1)
+        for (int i = block + 1; i <= blockCount; i += i & -i)
         {
-            pairs[emptyIndex++] = p;
-            return;
+            counts[i]++;
         }
+    }
 
-        // find the index where p.Key is bigger than pairs[i].Key
-        // we go until before emptyIndex - 1 because emptyIndex - 1 has already
-        // been checked above
-        int i = 0;
-        for (;
-             i < emptyIndex - 1 && key.compareTo(pairs[i].Key) < 0;
-             i++);
+    // returns the number of pairs in the blocks before `block`
+    private int pairsBefore(int block)
+    {
+        int pairs = 0;
 
-        // if keys are equal, set `value` as the new value
-        if (key.compareTo(pairs[i].Key) == 0)
+        for (int i = block; i > 0; i -= i & -i)
         {
-            pairs[i].Value = value;
-            // nothing more to be done in this case
-            return;
+            pairs += counts[i];
         }
-        // otherwise, push everything up and set `pairs[i]` to the node
-
-        // push everything else up, as it is larger
-        System.arraycopy(pairs, i, pairs, i + 1, emptyIndex - i);
 
-        // put the pair into its correct place
-        pairs[i] = p;
-
-        // increment the index to an empty spot
-        emptyIndex++;
+        return pairs;
+    }
 
-        // in case array starts to fill up, resize so more space is available
-        if (emptyIndex > pairs.length / 2)
+    // inserts an empty block at `block` in the directory, moving the blocks
+    // from there on up one step
+    private void insertBlock(int block)
+    {
+        // resize the directory when it is full
+        if (blockCount == keys.length)
         {
-            resize(pairs.length * 2);
+            int newLength = keys.length * 2;
+
+            keys = Arrays.copyOf(keys, newLength);
+            values = Arrays.copyOf(values, newLength);
+            sizes = Arrays.copyOf(sizes, newLength);
+            firstKeys = Arrays.copyOf(firstKeys, newLength);
         }
+
+        int moved = blockCount - block;
+        System.arraycopy(keys, block, keys, block + 1, moved);
+        System.arraycopy(values, block, values, block + 1, moved);
+        System.arraycopy(sizes, block, sizes, block + 1, moved);
+        System.arraycopy(firstKeys, block, firstKeys, block + 1, moved);
+
+        keys[block] = new Object[BLOCK_CAPACITY];
+        values[block] = new Object[BLOCK_CAPACITY];
+        sizes[block] = 0;
+        firstKeys[block] = null;
+
+        blockCount++;
     }
 
-    // returns the index of the key value pair, or -1 if no such key exists
-    public int findIndex(TKey key)
+    // returns the block the key is in or would be put in: the last block
+    // whose first key isn't greater than the key, or the first block if
+    // every block is, or the table has no blocks yet
+    @SuppressWarnings("unchecked")
+    private int findBlock(TKey key)
     {
-        // if empty there are no keys
-        if (emptyIndex <= 0)
+        // left is the left wall of the partition and likewise for right
+        int left = 1;
+        int right = blockCount - 1;
+
+        // the first block is the answer unless a later one starts at or
+        // before the key
+        int block = 0;
+
+        while (left <= right)
         {
-            return -1;
+            int middle = (left + right) >>> 1;
+
+            if (key.compareTo((TKey)firstKeys[middle]) >= 0)
+            {
+                block = middle;
+                left = middle + 1;
+            }
+            else
+            {
+                right = middle - 1;
+            }
         }
 
-        // binary search
+        return block;
+    }
+
+    // returns the index of the key within the block if it exists, otherwise
+    // -(the index it would be put at) - 1, which is always negative. the
+    // first block of a table without blocks is empty
+    private int searchBlock(int block, TKey key)
+    {
+        Object[] blockKeys = keys[block];
 
         // left is the left wall of the partition and likewise for right
-        // we begin with both ends at either side of the array
+        // we begin with both ends at either side of the block
         int left = 0;
-        int right = emptyIndex - 1;
-
-        // middle is the middle index
-        int middle = (left + right) / 2;
-
-        int compare = key.compareTo(pairs[middle].Key);
+        int right = sizes[block] - 1;
 
         // find the index of the element with the given key
-        // if left somehow becomes bigger than right, no such key exists
+        // if left becomes bigger than right, no such key exists and left is
+        // where it would be
         while (left <= right)
         {
+            // middle is the middle index
+            int middle = (left + right) >>> 1;
+
+            @SuppressWarnings("unchecked")
+            int compare = key.compareTo((TKey)blockKeys[middle]);
+
             // index has been found, return the index of it
             if (compare == 0)
             {
@@ -138,20 +229,395 @@ public class AssociativeArraySymbolTable<TKey extends Comparable<TKey>, TValue>
             {
                 left = middle + 1;
             }
+        }
+
+        return -(left + 1);
+    }
+
+    // puts a new pair at `index` of the block, moving the pairs of the block
+    // from there on up one step. a full block is split in two first
+    private void insertAt(int block, int index, TKey key, TValue value)
+    {
+        // the first pair makes the first block
+        if (blockCount == 0)
+        {
+            insertBlock(0);
+            rebuildCounts();
+        }
+
+        if (sizes[block] == BLOCK_CAPACITY)
+        {
+            // move the upper half of the block into a new block after it
+            int half = BLOCK_CAPACITY / 2;
+            insertBlock(block + 1);
+
+            System.arraycopy(keys[block], half, keys[block + 1], 0, BLOCK_CAPACITY - half);
+            System.arraycopy(values[block], half, values[block + 1], 0, BLOCK_CAPACITY - half);
+            Arrays.fill(keys[block], half, BLOCK_CAPACITY, null);
+            Arrays.fill(values[block], half, BLOCK_CAPACITY, null);
+
+            sizes[block] = half;
+            sizes[block + 1] = BLOCK_CAPACITY - half;
+            firstKeys[block + 1] = keys[block + 1][0];
+
+            rebuildCounts();
+
+            // the key belongs to the upper half if it goes after its start
+            if (index > half)
+            {
+                block++;
+                index -= half;
+            }
+        }
+
+        Object[] blockKeys = keys[block];
+        Object[] blockValues = values[block];
+        int moved = sizes[block] - index;
+
+        // push everything else up, as it is larger
+        System.arraycopy(blockKeys, index, blockKeys, index + 1, moved);
+        System.arraycopy(blockValues, index, blockValues, index + 1, moved);
+
+        // put the pair into its correct place
+        blockKeys[index] = key;
+        blockValues[index] = value;
+
+        sizes[block]++;
+        size++;
+        countPair(block);
+
+        firstKeys[block] = blockKeys[0];
+    }
+
+    // adds a key and associated key into the table. the place of the key is
+    // found by binary search, and only the larger pairs of its block are
+    // moved up
+    public void put(TKey key, TValue value)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        // if keys are equal, set `value` as the new value
+        if (index >= 0)
+        {
+            values[block][index] = value;
+            return;
+        }
+
+        insertAt(block, -(index + 1), key, value);
+    }
+
+    // sorts keys[0, length) in ascending order, moving values[i] along with
+    // keys[i]. the sort is stable, so equal keys stay in the order they were
+    // given in. merges runs of doubling width, going back and forth between
+    // the arrays and a buffer
+    @SuppressWarnings("unchecked")
+    private static <TKey extends Comparable<TKey>> void sortPairs(
+            Object[] keys,
+            Object[] values,
+            int length)
+    {
+        Object[] fromKeys = keys, fromValues = values;
+        Object[] toKeys = new Object[length], toValues = new Object[length];
+
+        for (int width = 1; width < length; width *= 2)
+        {
+            for (int start = 0; start < length; start += 2 * width)
+            {
+                int middle = Math.min(start + width, length);
+                int end = Math.min(start + 2 * width, length);
+
+                int i = start, j = middle;
+                for (int k = start; k < end; k++)
+                {
+                    // take from the left run unless the right one has a
+                    // strictly smaller key, which keeps equal keys in order
+                    boolean takeLeft = j >= end
+                            || (i < middle
+                                && ((TKey)fromKeys[i]).compareTo((TKey)fromKeys[j]) <= 0);
+
+                    if (takeLeft)
+                    {
+                        toKeys[k] = fromKeys[i];
+                        toValues[k] = fromValues[i++];
+                    }
+                    else
+                    {
+                        toKeys[k] = fromKeys[j];
+                        toValues[k] = fromValues[j++];
+                    }
+                }
+            }
+
+            Object[] swapKeys = fromKeys, swapValues = fromValues;
+            fromKeys = toKeys;
+            fromValues = toValues;
+            toKeys = swapKeys;
+            toValues = swapValues;
+        }
+
+        // the sorted pairs ended up in the buffer
+        if (fromKeys != keys)
+        {
+            System.arraycopy(fromKeys, 0, keys, 0, length);
+            System.arraycopy(fromValues, 0, values, 0, length);
+        }
+    }
+
+    // adds all keys and their associated values into the table at once.
+    // keys[i] is associated with values[i], and a key given more than once,
+    // or already in the table, gets the last value given for it.
+    // the pairs are sorted together and have their duplicates removed, then
+    // cut into full blocks, which takes O(n log n) rather than putting them
+    // one at a time
+    public void bulkLoad(TKey[] keys, TValue[] values)
+    {
+        if (keys.length != values.length)
+        {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%d keys but %d values",
+                            keys.length,
+                            values.length));
+        }
+
+        int length = size + keys.length;
+        Object[] allKeys = new Object[length];
+        Object[] allValues = new Object[length];
+
+        // the pairs already in the table come first, so that the new values
+        // of their keys come after them
+        int count = 0;
+        for (int block = 0; block < blockCount; block++)
+        {
+            System.arraycopy(this.keys[block], 0, allKeys, count, sizes[block]);
+            System.arraycopy(this.values[block], 0, allValues, count, sizes[block]);
+            count += sizes[block];
+        }
+
+        System.arraycopy(keys, 0, allKeys, size, keys.length);
+        System.arraycopy(values, 0, allValues, size, values.length);
+
+        sortPairs(allKeys, allValues, length);
+
+        // keep the last pair of every run of equal keys
+        count = 0;
+        for (int i = 0; i < length; i++)
+        {
+            @SuppressWarnings("unchecked")
+            boolean isDuplicate = count > 0
+                    && ((TKey)allKeys[count - 1]).compareTo((TKey)allKeys[i]) == 0;
+
+            if (!isDuplicate)
+            {
+                count++;
+            }
+
+            allKeys[count - 1] = allKeys[i];
+            allValues[count - 1] = allValues[i];
+        }
+
+        // cut the pairs into full blocks
+        blockCount = 0;
+        size = 0;
+        for (int start = 0; start < count; start += BLOCK_CAPACITY)
+        {
+            int blockSize = Math.min(BLOCK_CAPACITY, count - start);
+            insertBlock(blockCount);
+
+            int block = blockCount - 1;
+            System.arraycopy(allKeys, start, this.keys[block], 0, blockSize);
+            System.arraycopy(allValues, start, this.values[block], 0, blockSize);
+            sizes[block] = blockSize;
+            firstKeys[block] = allKeys[start];
+            size += blockSize;
+        }
+
+        // drop the blocks of the old directory that are no longer used
+        Arrays.fill(this.keys, blockCount, this.keys.length, null);
+        Arrays.fill(this.values, blockCount, this.values.length, null);
+        Arrays.fill(firstKeys, blockCount, firstKeys.length, null);
+
+        rebuildCounts();
+    }
+
+    // returns the index of the key value pair in ascending order, or -1 if
+    // no such key exists
+    public int findIndex(TKey key)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        return index < 0
+                ? -1
+                : pairsBefore(block) + index;
+    }
+
+    // returns the number of keys less than the given key, which is the
+    // 0-based position the key has or would have in ascending order
+    public int rank(TKey key)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        // a missing key would be put where the search ended
+        if (index < 0)
+        {
+            index = -(index + 1);
+        }
+
+        return pairsBefore(block) + index;
+    }
+
+    // returns the greatest key that isn't greater than the given key, or
+    // null if there is no such key
+    public TKey floor(TKey key)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        if (index >= 0)
+        {
+            return keyAt(block, index);
+        }
+
+        // the key before where the key would be put. only the first block
+        // can have every key greater than the key
+        index = -(index + 1);
+        return index > 0
+                ? keyAt(block, index - 1)
+                : null;
+    }
+
+    // returns the least key that isn't less than the given key, or null if
+    // there is no such key
+    public TKey ceiling(TKey key)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        if (index >= 0)
+        {
+            return keyAt(block, index);
+        }
+
+        // the key where the key would be put, which may be the first key of
+        // the next block
+        index = -(index + 1);
+        if (index < sizes[block])
+        {
+            return keyAt(block, index);
+        }
+
+        return block + 1 < blockCount
+                ? keyAt(block + 1, 0)
+                : null;
+    }
+
+    // walks the keys in ascending order from a lower bound, stopping at an
+    // upper bound or at the first key without a prefix
+    private class RangeIterator implements Iterator<TKey>
+    {
+        // the block and index of the next key
+        private int block;
+        private int index;
+
+        // the key to stop at, or null to walk to the end
+        private final TKey high;
+
+        // the prefix every key must start with, or null for any key
+        private final String prefix;
+
+        // seeks the least key that isn't less than `low`, or the least key
+        // of the table if `low` is null
+        public RangeIterator(TKey low, TKey high, String prefix)
+        {
+            this.high = high;
+            this.prefix = prefix;
+
+            if (low != null)
+            {
+                block = findBlock(low);
+                index = searchBlock(block, low);
+
+                if (index < 0)
+                {
+                    index = -(index + 1);
+                }
+            }
+
+            skipEndOfBlock();
+        }
+
+        // moves on to the start of the next block at the end of one
+        private void skipEndOfBlock()
+        {
+            if (block < blockCount && index == sizes[block])
+            {
+                block++;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (block >= blockCount)
+            {
+                return false;
+            }
+
+            TKey key = keyAt(block, index);
+
+            return (high == null || key.compareTo(high) < 0)
+                    && (prefix == null || ((String)key).startsWith(prefix));
+        }
+
+        @Override
+        public TKey next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
 
-            // find the new middle of the partition and compare the next elements
-            middle = (left + right) / 2;
-            compare = key.compareTo(pairs[middle].Key);
+            TKey key = keyAt(block, index++);
+            skipEndOfBlock();
+
+            return key;
         }
+    }
 
-        // no such key existed
-        return -1;
+    // returns all keys in ascending order
+    @Override
+    public Iterator<TKey> iterator()
+    {
+        return new RangeIterator(null, null, null);
+    }
+
+    // returns the keys that are at least `low` and less than `high` in
+    // ascending order. the walk starts at `low` and stops at `high` without
+    // going through the keys outside of the range
+    public Iterable<TKey> keys(TKey low, TKey high)
+    {
+        return () -> new RangeIterator(low, high, null);
+    }
+
+    // returns the keys of the table starting with the prefix in ascending
+    // order. static so that it only takes tables with String keys, the only
+    // keys a prefix applies to
+    public static <TValue> Iterable<String> keysWithPrefix(
+            AssociativeArraySymbolTable<String, TValue> table,
+            String prefix)
+    {
+        return () -> table.new RangeIterator(prefix, null, prefix);
     }
 
     // returns the value associated with that key
     public TValue get(TKey key)
     {
-        int index = findIndex(key);
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
 
         // if index < 0 then no element was found, therefore we throw this
         // exception
@@ -161,22 +627,148 @@ public class AssociativeArraySymbolTable<TKey extends Comparable<TKey>, TValue>
         }
 
         // otherwise we return the value of the element at the index
-        return pairs[index].Value;
+        return valueAt(block, index);
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        return index < 0
+                ? defaultValue
+                : valueAt(block, index);
+    }
+
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // the key is only searched for once. returns the new value
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        // new keys are placed where the search ended
+        if (index < 0)
+        {
+            insertAt(block, -(index + 1), key, value);
+            return value;
+        }
+
+        TValue oldValue = valueAt(block, index);
+        TValue newValue = oldValue == null
+                ? value
+                : remapping.apply(oldValue, value);
+
+        values[block][index] = newValue;
+        return newValue;
+    }
+
+    // associates the result of `remapping` on the key and its current value
+    // (null if there is none) with the key. returns the new value
+    public TValue compute(
+            TKey key,
+            BiFunction<? super TKey, ? super TValue, ? extends TValue> remapping)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        if (index < 0)
+        {
+            TValue value = remapping.apply(key, null);
+            insertAt(block, -(index + 1), key, value);
+            return value;
+        }
+
+        TValue value = remapping.apply(key, valueAt(block, index));
+        values[block][index] = value;
+
+        return value;
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        int block = findBlock(key);
+        int index = searchBlock(block, key);
+
+        if (index < 0)
+        {
+            TValue value = mapping.apply(key);
+            insertAt(block, -(index + 1), key, value);
+            return value;
+        }
+
+        TValue value = valueAt(block, index);
+
+        if (value == null)
+        {
+            value = mapping.apply(key);
+            values[block][index] = value;
+        }
+
+        return value;
     }
 
     // returns true if an element with the given key exists, otherwise false
     public boolean contains(TKey key)
     {
-        // findIndex returns -1 if the index couldn't be found
-        // which if its >= 0 then an element was found and exists
-        return findIndex(key) >= 0;
+        int block = findBlock(key);
+
+        // a negative index means that the key couldn't be found
+        return searchBlock(block, key) >= 0;
     }
 
-    // returns the string representation of the object
+    // returns a read only copy of the table laid out for faster lookups
+    public FrozenSymbolTable<TKey, TValue> freeze()
+    {
+        Object[] sortedKeys = new Object[size];
+        Object[] sortedValues = new Object[size];
+
+        int count = 0;
+        for (int block = 0; block < blockCount; block++)
+        {
+            System.arraycopy(keys[block], 0, sortedKeys, count, sizes[block]);
+            System.arraycopy(values[block], 0, sortedValues, count, sizes[block]);
+            count += sizes[block];
+        }
+
+        return new FrozenSymbolTable<>(sortedKeys, sortedValues, size);
+    }
+
+    // returns the string representation of the object, the pairs in
+    // ascending order
     @Override
     public String toString()
     {
-        return Arrays.toString(Arrays.copyOf(pairs, emptyIndex));
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int block = 0; block < blockCount; block++)
+        {
+            for (int index = 0; index < sizes[block]; index++)
+            {
+                if (sb.length() > 1)
+                {
+                    sb.append(", ");
+                }
+
+                sb.append('{')
+                        .append(keys[block][index])
+                        .append(", ")
+                        .append(values[block][index])
+                        .append('}');
+            }
+        }
+
+        return sb.append(']').toString();
     }
 
     // test method
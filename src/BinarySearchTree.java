@@ -1,10 +1,19 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/21
-    Updated: 2020/09/27
+    Updated: 2026/10/18
     Purpose:
         BinarySearchTree attempts at implementing a binary search tree.
         This class only implements searching, retrieval, and appending.
+        Searching, appending, and walking the tree are all done with loops
+        and explicit stacks rather than recursion, so even a tree as deep
+        as it is large (from sorted input) never overflows the call stack.
+        Every node counts the nodes of its sub tree, so the rank of a key is
+        found in a single walk down the tree, and ranges of keys are walked
+        from their lower bound without visiting the keys before it.
+        The tree and the representations of its keys are written to any
+        `Appendable` one node at a time, so printing a tree takes time in
+        proportion to its size and no more memory than its height.
     Usage:
         Import the class to use the binary search tree or run the main method
         to run its tests as well as showing the keys of the tree in prefix,
@@ -12,9 +21,18 @@
         of "String{blank space}Integer".
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class BinarySearchTree<TKey extends Comparable<TKey>, TValue>
+        implements SymbolTable<TKey, TValue>
 {
     private class Node
     {
@@ -23,21 +41,14 @@ public class BinarySearchTree<TKey extends Comparable<TKey>, TValue>
         public Node left;
         public Node right;
 
-        // returns the a prefix representation of the node
+        // the number of nodes in the sub tree of this node, itself included
+        public int size = 1;
+
+        // returns the a prefix representation of the node and its sub tree
         @Override
         public String toString()
         {
-            return String.format(
-                    "{%s, %s}"
-                        + (left == null
-                            ? ""
-                            : ", " + left)
-                        + (right == null
-                            ? ""
-                            : ", " + right),
-                    key,
-                    value
-            );
+            return writeToString(out -> writeNodes(new PrefixIterator(this), out));
         }
     }
 
@@ -45,99 +56,263 @@ public class BinarySearchTree<TKey extends Comparable<TKey>, TValue>
 
     public BinarySearchTree() {}
 
-    // recursive function to insert a new node into the binary search tree
-    private void insert(Node root, Node newNode)
+    // returns the number of nodes in the sub tree, 0 for an empty link
+    private int size(Node n)
+    {
+        return n == null
+                ? 0
+                : n.size;
+    }
+
+    public int size()
     {
-        int comparison = newNode.key.compareTo(root.key);
+        return size(root);
+    }
+
+    // adds the key and the associated value into the binary search tree.
+    // the tree is walked iteratively and a node is only created if the key
+    // isn't already in the tree
+    public void put(TKey key, TValue value)
+    {
+        Node parent = null;
+        Node current = root;
+        int comparison = 0;
+
+        while (current != null)
+        {
+            comparison = key.compareTo(current.key);
 
-        // newNode = root, just change values
-        if (comparison == 0)
+            // key = current, just change values
+            if (comparison == 0)
+            {
+                current.value = value;
+                return;
+            }
+
+            // key > current, continue on the left side, otherwise on the
+            // right side
+            parent = current;
+            current = comparison > 0
+                    ? current.left
+                    : current.right;
+        }
+
+        Node n = new Node();
+        n.value = value;
+        n.key = key;
+
+        // no nodes inside, n is the root
+        if (parent == null)
         {
-            root.value = newNode.value;
+            root = n;
+            return;
         }
-        // newNode > root, insert on left side
+        // otherwise n goes on the side of the parent the walk ended on
         else if (comparison > 0)
         {
-            // there is no left sub tree, set node to be sub tree
-            if (root.left == null)
-            {
-                root.left = newNode;
-            }
-            // recursively search left sub tree
-            else
+            parent.left = n;
+        }
+        else
+        {
+            parent.right = n;
+        }
+
+        countNewNode(n);
+    }
+
+    // adds the new node to the sizes of the nodes above it. this walks the
+    // path down to the node a second time, which is only done when a node
+    // is added, so that updating existing keys stays a single walk
+    private void countNewNode(Node n)
+    {
+        Node current = root;
+
+        while (current != n)
+        {
+            current.size++;
+            current = n.key.compareTo(current.key) > 0
+                    ? current.left
+                    : current.right;
+        }
+    }
+
+    // traverses the tree from `root` until a node with the same key is found
+    // and returns said node or null if no such node could be found
+    private Node traverseFor(Node root, TKey key)
+    {
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            // key = current, this is the node
+            if (comparison == 0)
             {
-                insert(root.left, newNode);
+                return current;
             }
+
+            // key > current, continue on the left side for the key,
+            // otherwise on the right side
+            current = comparison > 0
+                    ? current.left
+                    : current.right;
         }
-        // newNode < root, insert on right side
-        else
+
+        return null;
+    }
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception
+    public TValue get(TKey key)
+    {
+        Node n = traverseFor(root, key);
+
+        if (n == null)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return n.value;
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        Node n = traverseFor(root, key);
+
+        return n == null
+                ? defaultValue
+                : n.value;
+    }
+
+    // walks down the tree towards the key and returns the node with the key,
+    // or the node that a new node with the key would be attached to.
+    // returns null only if the tree is empty
+    private Node descend(TKey key)
+    {
+        Node current = root;
+
+        while (current != null)
         {
-            // there is no right sub tree, set node to be sub tree
-            if (root.right == null)
+            int comparison = key.compareTo(current.key);
+
+            // key = current, this is the node
+            if (comparison == 0)
             {
-                root.right = newNode;
+                return current;
             }
-            // recursively search right sub tree
-            else
+
+            // key > current goes left and key < current goes right, the
+            // same as in `insert`. stop at the node missing that child
+            Node next = comparison > 0
+                    ? current.left
+                    : current.right;
+
+            if (next == null)
             {
-                insert(root.right, newNode);
+                return current;
             }
+
+            current = next;
         }
+
+        return null;
     }
 
-    // adds the key and the associated value into the binary search tree
-    public void put(TKey key, TValue value)
+    // attaches a new node to `parent` as returned by `descend` and returns
+    // it; `parent` is null for an empty tree
+    private Node attach(Node parent, TKey key, TValue value)
     {
         Node n = new Node();
-        n.value = value;
         n.key = key;
+        n.value = value;
 
-        // no nodes inside, n is the root
-        if (root == null)
+        if (parent == null)
         {
             root = n;
+            return n;
+        }
+        else if (key.compareTo(parent.key) > 0)
+        {
+            parent.left = n;
         }
-        // recursively search the tree fpr the right spot
         else
         {
-            insert(root, n);
+            parent.right = n;
         }
+
+        countNewNode(n);
+        return n;
     }
 
-    // traverses the tree recursively until a root with the same key is found and
-    // returns said root or null if no such root could be found
-    private Node traverseFor(Node root, TKey key)
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // the tree is only walked once. returns the new value
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
     {
-        // no tree
-        if (root == null)
+        Node n = descend(key);
+
+        if (n == null || key.compareTo(n.key) != 0)
         {
-            return null;
+            attach(n, key, value);
+            return value;
         }
 
-        int comparison = key.compareTo(root.key);
+        n.value = n.value == null
+                ? value
+                : remapping.apply(n.value, value);
+
+        return n.value;
+    }
+
+    // associates the result of `remapping` on the key and its current value
+    // (null if there is none) with the key. the tree is only walked once.
+    // returns the new value
+    public TValue compute(
+            TKey key,
+            BiFunction<? super TKey, ? super TValue, ? extends TValue> remapping)
+    {
+        Node n = descend(key);
 
-        // key = root, return root value
-        if (comparison == 0)
+        if (n == null || key.compareTo(n.key) != 0)
         {
-            return root;
+            return attach(n, key, remapping.apply(key, null)).value;
         }
-        // key > root, traverse left side for the key
-        else if ( comparison > 0)
+
+        n.value = remapping.apply(key, n.value);
+        return n.value;
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it.
+    // the tree is only walked once
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        Node n = descend(key);
+
+        if (n == null || key.compareTo(n.key) != 0)
         {
-            return traverseFor(root.left, key);
+            return attach(n, key, mapping.apply(key)).value;
         }
-        // key < root, traverse right side for the key
-        else
+
+        if (n.value == null)
         {
-            return traverseFor(root.right, key);
+            n.value = mapping.apply(key);
         }
-    }
 
-    // returns the value associated with the key, or throws a null exception
-    // if not found.
-    public TValue get(TKey key)
-    {
-        return traverseFor(root, key).value;
+        return n.value;
     }
 
     // returns true if an element associated with the given key exists,
@@ -149,79 +324,582 @@ public class BinarySearchTree<TKey extends Comparable<TKey>, TValue>
         return traverseFor(root, key) != null;
     }
 
+    // returns the greatest key that isn't greater than the given key, or
+    // null if there is no such key
+    public TKey floor(TKey key)
+    {
+        TKey floor = null;
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            if (comparison == 0)
+            {
+                return current.key;
+            }
+
+            // current < key, so current is the floor unless a greater key on
+            // the left side also is
+            if (comparison > 0)
+            {
+                floor = current.key;
+                current = current.left;
+            }
+            else
+            {
+                current = current.right;
+            }
+        }
+
+        return floor;
+    }
+
+    // returns the least key that isn't less than the given key, or null if
+    // there is no such key
+    public TKey ceiling(TKey key)
+    {
+        TKey ceiling = null;
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            if (comparison == 0)
+            {
+                return current.key;
+            }
+
+            // current > key, so current is the ceiling unless a lesser key on
+            // the right side also is
+            if (comparison < 0)
+            {
+                ceiling = current.key;
+                current = current.right;
+            }
+            else
+            {
+                current = current.left;
+            }
+        }
+
+        return ceiling;
+    }
+
+    // returns the number of keys less than the given key, which is the
+    // 0-based position the key has or would have in ascending order
+    public int rank(TKey key)
+    {
+        int rank = 0;
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            // the lesser keys are on the right side
+            if (comparison == 0)
+            {
+                return rank + size(current.right);
+            }
+
+            // current and every key on its right side are less than the key
+            if (comparison > 0)
+            {
+                rank += size(current.right) + 1;
+                current = current.left;
+            }
+            else
+            {
+                current = current.right;
+            }
+        }
+
+        return rank;
+    }
+
+    // walks the keys in ascending order from a lower bound, stopping at an
+    // upper bound or at the first key without a prefix. the stack holds the
+    // nodes still to be visited, each followed by its greater (left) side
+    private class RangeIterator implements Iterator<TKey>
+    {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        // the key to stop at, or null to walk to the end
+        private final TKey high;
+
+        // the prefix every key must start with, or null for any key
+        private final String prefix;
+
+        // seeks the least key that isn't less than `low`, or the least key
+        // of the tree if `low` is null
+        public RangeIterator(TKey low, TKey high, String prefix)
+        {
+            this.high = high;
+            this.prefix = prefix;
+
+            // keep every node on the way down that isn't less than `low`;
+            // those are the nodes still to be visited, least on top
+            Node current = root;
+            while (current != null)
+            {
+                if (low == null || current.key.compareTo(low) >= 0)
+                {
+                    stack.push(current);
+                    current = current.right;
+                }
+                else
+                {
+                    current = current.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            Node n = stack.peek();
+
+            return n != null
+                    && (high == null || n.key.compareTo(high) < 0)
+                    && (prefix == null || ((String)n.key).startsWith(prefix));
+        }
+
+        @Override
+        public TKey next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            Node n = stack.pop();
+
+            // the keys following n are on its left side, least first
+            for (Node child = n.left; child != null; child = child.right)
+            {
+                stack.push(child);
+            }
+
+            return n.key;
+        }
+    }
+
+    // returns all keys in ascending order
+    @Override
+    public Iterator<TKey> iterator()
+    {
+        return new RangeIterator(null, null, null);
+    }
+
+    // returns the keys that are at least `low` and less than `high` in
+    // ascending order. the walk starts at `low` and stops at `high` without
+    // going through the keys outside of the range
+    public Iterable<TKey> keys(TKey low, TKey high)
+    {
+        return () -> new RangeIterator(low, high, null);
+    }
+
+    // returns the keys of the tree starting with the prefix in ascending
+    // order. static so that it only takes trees with String keys, the only
+    // keys a prefix applies to
+    public static <TValue> Iterable<String> keysWithPrefix(
+            BinarySearchTree<String, TValue> tree,
+            String prefix)
+    {
+        return () -> tree.new RangeIterator(prefix, null, prefix);
+    }
+
+    // returns the number of nodes on the longest path from the root, 0 for
+    // an empty tree. the tree is walked one level at a time rather than
+    // recursively, as an unbalanced tree may be as high as it has nodes
+    public int height()
+    {
+        int height = 0;
+
+        Queue<Node> level = new ArrayDeque<>();
+        if (root != null)
+        {
+            level.add(root);
+        }
+
+        while (!level.isEmpty())
+        {
+            height++;
+
+            // replace the nodes of this level with their children
+            for (int count = level.size(); count > 0; count--)
+            {
+                Node n = level.remove();
+
+                if (n.left != null)
+                {
+                    level.add(n.left);
+                }
+
+                if (n.right != null)
+                {
+                    level.add(n.right);
+                }
+            }
+        }
+
+        return height;
+    }
+
     // returns a string representation of the object; specifically in prefix
-    // notion.
+    // notion. use `writeTo` for large trees
     @Override
     public String toString()
     {
-        return "[" +
-                (root == null
-                        ? ""
-                        : root) +
-                "]";
+        return writeToString(this::writeTo);
     }
 
-    // returns the prefix representation of the keys of the tree
-    public String prefixRepresentation(Node n)
+    // walks the nodes of the sub tree of `start` in prefix order (node, left,
+    // right) with an explicit stack instead of recursion
+    private class PrefixIterator implements Iterator<Node>
     {
-        if (n == null)
+        // the nodes yet to be visited, the top one is visited next
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        public PrefixIterator(Node start)
         {
-            return null;
+            if (start != null)
+            {
+                stack.push(start);
+            }
         }
 
-        String left = prefixRepresentation(n.left);
-        String right = prefixRepresentation(n.right);
+        @Override
+        public boolean hasNext()
+        {
+            return !stack.isEmpty();
+        }
 
-        return
-                n.key +
-                (left == null
-                        ? ""
-                        : " " + left) +
-                (right == null
-                        ? ""
-                        : " " + right);
+        @Override
+        public Node next()
+        {
+            if (stack.isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+
+            Node n = stack.pop();
+
+            // the right sub tree is pushed first so that the left one is
+            // visited first
+            if (n.right != null)
+            {
+                stack.push(n.right);
+            }
+
+            if (n.left != null)
+            {
+                stack.push(n.left);
+            }
+
+            return n;
+        }
     }
 
-    // returns the infix representation of the keys of the tree
-    public String infixRepresentation(Node n)
+    // walks the nodes of the sub tree of `start` in infix order (left, node,
+    // right) with an explicit stack instead of recursion
+    private class InfixIterator implements Iterator<Node>
     {
-        if (n == null)
+        // the nodes whose left sub trees are being visited, the top one is
+        // visited next
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        public InfixIterator(Node start)
+        {
+            pushLeftPath(start);
+        }
+
+        // pushes the node and every node down its chain of left children
+        private void pushLeftPath(Node n)
+        {
+            for (; n != null; n = n.left)
+            {
+                stack.push(n);
+            }
+        }
+
+        @Override
+        public boolean hasNext()
         {
-            return null;
+            return !stack.isEmpty();
         }
 
-        String left = prefixRepresentation(n.left);
-        String right = prefixRepresentation(n.right);
+        @Override
+        public Node next()
+        {
+            if (stack.isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+
+            Node n = stack.pop();
+            pushLeftPath(n.right);
 
-        return
-                (left == null
-                        ? ""
-                        : " " + left + " "
-                ) + n.key +
-                (right == null
-                        ? ""
-                        : " " + right);
+            return n;
+        }
     }
 
-    // returns the postfix representation of the keys of the tree
-    public String postfixRepresentation(Node n)
+    // walks the nodes of the sub tree of `start` in postfix order (left,
+    // right, node) with an explicit stack instead of recursion
+    private class PostfixIterator implements Iterator<Node>
     {
-        if (n == null)
+        // the nodes whose sub trees are being visited
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        // the node visited last, which tells whether the top node's right
+        // sub tree is done
+        private Node lastVisited;
+
+        public PostfixIterator(Node start)
         {
-            return null;
+            pushLeftmostPath(start);
         }
 
-        String left = prefixRepresentation(n.left);
-        String right = prefixRepresentation(n.right);
+        // pushes the path from the node down to the first node in postfix
+        // order, going left where possible and right otherwise
+        private void pushLeftmostPath(Node n)
+        {
+            while (n != null)
+            {
+                stack.push(n);
+                n = n.left != null
+                        ? n.left
+                        : n.right;
+            }
+        }
 
-        return
-                (left == null
-                        ? ""
-                        : " " + left) +
-                (right == null
-                        ? ""
-                        : " " + right + " ")
-                + n.key;
+        @Override
+        public boolean hasNext()
+        {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Node next()
+        {
+            if (stack.isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+
+            lastVisited = stack.pop();
+
+            // coming up from the left sub tree of the parent, its right sub
+            // tree is visited before the parent itself
+            Node parent = stack.peek();
+            if (parent != null
+                    && parent.left == lastVisited
+                    && parent.right != null)
+            {
+                pushLeftmostPath(parent.right);
+            }
+
+            return lastVisited;
+        }
+    }
+
+    // reads the keys of the nodes walked by an iterator
+    private class KeyIterator implements Iterator<TKey>
+    {
+        private final Iterator<Node> nodes;
+
+        public KeyIterator(Iterator<Node> nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public TKey next()
+        {
+            return nodes.next().key;
+        }
+    }
+
+    // returns the keys of the tree in prefix order
+    public Iterable<TKey> prefixOrder()
+    {
+        return () -> new KeyIterator(new PrefixIterator(root));
+    }
+
+    // returns the keys of the tree in infix order
+    public Iterable<TKey> infixOrder()
+    {
+        return () -> new KeyIterator(new InfixIterator(root));
+    }
+
+    // returns the keys of the tree in postfix order
+    public Iterable<TKey> postfixOrder()
+    {
+        return () -> new KeyIterator(new PostfixIterator(root));
+    }
+
+    // the number of characters gathered before they are passed on to the
+    // Appendable being written to
+    private static final int WRITE_CHUNK_SIZE = 1 << 13;
+
+    // passes the gathered characters on to `out` once there are enough of
+    // them, or all of them if `isLast`. gathering them first keeps the
+    // number of calls to `out`, which may be synchronized, low
+    private static void flushChunk(StringBuilder chunk, Appendable out, boolean isLast)
+            throws IOException
+    {
+        if (chunk.length() >= WRITE_CHUNK_SIZE || isLast)
+        {
+            out.append(chunk);
+            chunk.setLength(0);
+        }
+    }
+
+    // writes the keys of the walked nodes to `out`, separated by blank
+    // spaces, a few nodes at a time
+    private void writeKeys(
+            Iterator<Node> nodes,
+            Appendable out) throws IOException
+    {
+        StringBuilder chunk = new StringBuilder();
+        boolean first = true;
+
+        while (nodes.hasNext())
+        {
+            if (!first)
+            {
+                chunk.append(' ');
+            }
+
+            chunk.append(nodes.next().key);
+            first = false;
+
+            flushChunk(chunk, out, false);
+        }
+
+        flushChunk(chunk, out, true);
+    }
+
+    // writes the walked nodes to `out` as "{key, value}" separated by commas,
+    // a few nodes at a time
+    private void writeNodes(
+            Iterator<Node> nodes,
+            Appendable out) throws IOException
+    {
+        StringBuilder chunk = new StringBuilder();
+        boolean first = true;
+
+        while (nodes.hasNext())
+        {
+            Node n = nodes.next();
+
+            if (!first)
+            {
+                chunk.append(", ");
+            }
+
+            chunk.append('{')
+                    .append(n.key)
+                    .append(", ")
+                    .append(n.value)
+                    .append('}');
+            first = false;
+
+            flushChunk(chunk, out, false);
+        }
+
+        flushChunk(chunk, out, true);
+    }
+
+    // runs a writer on a StringBuilder and returns the result. appending to
+    // a StringBuilder never fails, so neither does this
+    private static String writeToString(Writing writing)
+    {
+        StringBuilder sb = new StringBuilder();
+
+        try
+        {
+            writing.writeTo(sb);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return sb.toString();
+    }
+
+    // something that writes to an Appendable
+    @FunctionalInterface
+    private interface Writing
+    {
+        void writeTo(Appendable out) throws IOException;
+    }
+
+    // writes the tree to `out` in the same form as `toString()`, without
+    // ever holding more than a node of it in memory
+    public void writeTo(Appendable out) throws IOException
+    {
+        out.append('[');
+        writeNodes(new PrefixIterator(root), out);
+        out.append(']');
+    }
+
+    // writes the prefix representation of the keys of the sub tree of `n` to
+    // `out`
+    public void writePrefix(Node n, Appendable out) throws IOException
+    {
+        writeKeys(new PrefixIterator(n), out);
+    }
+
+    // writes the infix representation of the keys of the sub tree of `n` to
+    // `out`
+    public void writeInfix(Node n, Appendable out) throws IOException
+    {
+        writeKeys(new InfixIterator(n), out);
+    }
+
+    // writes the postfix representation of the keys of the sub tree of `n`
+    // to `out`
+    public void writePostfix(Node n, Appendable out) throws IOException
+    {
+        writeKeys(new PostfixIterator(n), out);
+    }
+
+    // returns the prefix representation of the keys of the tree, or null if
+    // it is empty
+    public String prefixRepresentation(Node n)
+    {
+        return n == null
+                ? null
+                : writeToString(out -> writePrefix(n, out));
+    }
+
+    // returns the infix representation of the keys of the tree, or null if
+    // it is empty
+    public String infixRepresentation(Node n)
+    {
+        return n == null
+                ? null
+                : writeToString(out -> writeInfix(n, out));
+    }
+
+    // returns the postfix representation of the keys of the tree, or null if
+    // it is empty
+    public String postfixRepresentation(Node n)
+    {
+        return n == null
+                ? null
+                : writeToString(out -> writePostfix(n, out));
     }
 
     // test methods
@@ -0,0 +1,563 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        ConcurrentHashTable<TKey, TValue> is a hash table with separate
+        chaining that many threads can write to at once.
+        Writers lock one of a fixed number of stripes, chosen by the hash of
+        the key, so writers of different stripes never wait for each other.
+        Readers never lock; nodes are only ever added to the front of a
+        chain and their links never change, so a reader always sees a
+        complete chain.
+        Resizing locks every stripe and copies the nodes into a bucket array
+        twice the size, leaving the old array intact for readers still
+        walking it.
+        Iteration is weakly consistent; it never throws because of
+        concurrent writes and returns every key that was in the table when
+        the iterator was created, but may or may not return keys added
+        after that.
+    Usage:
+        Import the class to use the hash table or run the main method with a
+        text file and a number of threads to count the words of the file on
+        that many threads at once.
+        Requires `SymbolTable` and `TextUtility` to work.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class ConcurrentHashTable<TKey, TValue> implements SymbolTable<TKey, TValue>
+{
+    private static class Node<TKey, TValue>
+    {
+        public final TKey key;
+        public final int hash;
+        public final Node<TKey, TValue> next;
+
+        // volatile so that readers see values replaced by writers
+        public volatile TValue value;
+
+        public Node(TKey key, int hash, TValue value, Node<TKey, TValue> next)
+        {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(
+                    "{%s, %s}",
+                    key,
+                    value);
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 128;
+    private static final int DEFAULT_STRIPES = 64;
+    private static final double LOAD_FACTOR = 0.75;
+
+    // the bucket array is replaced as a whole when resizing, the volatile
+    // write publishes the copied nodes to readers
+    private volatile AtomicReferenceArray<Node<TKey, TValue>> buckets;
+
+    // the bucket array is always a multiple of the number of stripes in
+    // length, which means the stripe of a key is the same no matter the
+    // length of the bucket array
+    private final ReentrantLock[] stripes;
+
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentHashTable()
+    {
+        this(DEFAULT_CAPACITY, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentHashTable(int capacity)
+    {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    // returns a table with enough buckets to hold `expectedSize` elements
+    // without growing
+    public static <TKey, TValue> ConcurrentHashTable<TKey, TValue> withExpectedSize(
+            int expectedSize)
+    {
+        int capacity = (int)Math.ceil(expectedSize / LOAD_FACTOR);
+
+        return new ConcurrentHashTable<>(Math.max(DEFAULT_CAPACITY, capacity));
+    }
+
+    // creates a table with at least `capacity` buckets where writers are
+    // spread over `stripeCount` locks
+    public ConcurrentHashTable(int capacity, int stripeCount)
+    {
+        if (stripeCount <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "stripe count must be positive: " + stripeCount);
+        }
+
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++)
+        {
+            stripes[i] = new ReentrantLock();
+        }
+
+        // round the capacity up to the number of stripes times a power of two
+        int length = stripeCount;
+        while (length < capacity && length <= Integer.MAX_VALUE / 2)
+        {
+            length *= 2;
+        }
+
+        buckets = new AtomicReferenceArray<>(length);
+    }
+
+    // returns the number of elements; only exact while no other thread is
+    // adding elements
+    public int size()
+    {
+        return size.intValue();
+    }
+
+    // returns the hash index for the given hash in a bucket array of the
+    // given length
+    private static int hashIndex(int hash, int length)
+    {
+        // masked with 0x7fffffff to remove the negative sign then modulo the
+        // length of the bucket array to limit the range of the index to
+        // the buckets.
+        return (hash & 0x7fffffff) % length;
+    }
+
+    // returns the lock guarding every bucket the hash can be placed in
+    private ReentrantLock stripeFor(int hash)
+    {
+        return stripes[hashIndex(hash, stripes.length)];
+    }
+
+    // returns the node for the key in the chain starting at `current`, or
+    // null if there is no such node
+    private static <TKey, TValue> Node<TKey, TValue> findNode(
+            Node<TKey, TValue> current,
+            TKey key,
+            int hash)
+    {
+        // before equality is checked, hashcode equality is checked
+        // this is because the hashcode is stored in the node and checking
+        // two int values is faster than checking the equality of two
+        // entire objects
+        while (current != null
+                && !(current.hash == hash && current.key.equals(key)))
+        {
+            current = current.next;
+        }
+
+        return current;
+    }
+
+    // returns the node for the key without locking, or null if there is no
+    // such node
+    private Node<TKey, TValue> findNode(TKey key, int hash)
+    {
+        AtomicReferenceArray<Node<TKey, TValue>> table = buckets;
+
+        return findNode(
+                table.get(hashIndex(hash, table.length())),
+                key,
+                hash);
+    }
+
+    // finds the node for the key while holding its stripe and hands it to
+    // `update`; if there is no such node, the value returned by `update`
+    // is added to the table with the key. `update` is given null in that
+    // case and runs while the stripe is held
+    private TValue update(
+            TKey key,
+            Function<Node<TKey, TValue>, TValue> update)
+    {
+        int hash = key.hashCode();
+        ReentrantLock stripe = stripeFor(hash);
+        boolean added = false;
+        TValue value;
+
+        stripe.lock();
+        try
+        {
+            // the bucket array cannot be replaced while a stripe is held,
+            // so it is read after locking
+            AtomicReferenceArray<Node<TKey, TValue>> table = buckets;
+            int hashIndex = hashIndex(hash, table.length());
+
+            Node<TKey, TValue> head = table.get(hashIndex);
+            Node<TKey, TValue> existing = findNode(head, key, hash);
+
+            value = update.apply(existing);
+
+            // new nodes go first in the chain so that readers walking it
+            // concurrently still see a complete chain
+            if (existing == null)
+            {
+                table.set(hashIndex, new Node<>(key, hash, value, head));
+                size.increment();
+                added = true;
+            }
+        }
+        finally
+        {
+            stripe.unlock();
+        }
+
+        // resizing takes every stripe, so it can only happen once this
+        // stripe has been let go of
+        if (added)
+        {
+            resizeIfNeeded();
+        }
+
+        return value;
+    }
+
+    // locks every stripe in order, so that two resizing threads never wait
+    // on each other, and doubles the bucket array if the table is still
+    // over the load factor
+    private void resizeIfNeeded()
+    {
+        if (size.sum() <= LOAD_FACTOR * buckets.length())
+        {
+            return;
+        }
+
+        int locked = 0;
+        try
+        {
+            for (; locked < stripes.length; locked++)
+            {
+                stripes[locked].lock();
+            }
+
+            AtomicReferenceArray<Node<TKey, TValue>> table = buckets;
+
+            // another thread may have resized while the stripes were taken
+            if (size.sum() <= LOAD_FACTOR * table.length()
+                    || table.length() > Integer.MAX_VALUE / 2)
+            {
+                return;
+            }
+
+            AtomicReferenceArray<Node<TKey, TValue>> newTable =
+                    new AtomicReferenceArray<>(table.length() * 2);
+
+            // the nodes are copied rather than relinked, as readers may still
+            // be walking the chains of the old bucket array
+            for (int i = 0; i < table.length(); i++)
+            {
+                for (Node<TKey, TValue> current = table.get(i);
+                     current != null;
+                     current = current.next)
+                {
+                    int hashIndex = hashIndex(current.hash, newTable.length());
+
+                    newTable.set(
+                            hashIndex,
+                            new Node<>(
+                                    current.key,
+                                    current.hash,
+                                    current.value,
+                                    newTable.get(hashIndex)));
+                }
+            }
+
+            buckets = newTable;
+        }
+        finally
+        {
+            for (locked--; locked >= 0; locked--)
+            {
+                stripes[locked].unlock();
+            }
+        }
+    }
+
+    // adds a key and an associated value to the table
+    public void put(TKey key, TValue value)
+    {
+        update(key, existing ->
+        {
+            // if an element with the same key was found then just replace
+            // the value inside the element
+            if (existing != null)
+            {
+                existing.value = value;
+            }
+
+            return value;
+        });
+    }
+
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // the whole update is atomic. returns the new value
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        return update(key, existing ->
+        {
+            if (existing == null)
+            {
+                return value;
+            }
+
+            existing.value = existing.value == null
+                    ? value
+                    : remapping.apply(existing.value, value);
+
+            return existing.value;
+        });
+    }
+
+    // associates the result of `remapping` on the key and its current value
+    // (null if there is none) with the key. the whole update is atomic.
+    // returns the new value
+    public TValue compute(
+            TKey key,
+            BiFunction<? super TKey, ? super TValue, ? extends TValue> remapping)
+    {
+        return update(key, existing ->
+        {
+            if (existing == null)
+            {
+                return remapping.apply(key, null);
+            }
+
+            existing.value = remapping.apply(key, existing.value);
+            return existing.value;
+        });
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it.
+    // `mapping` is called at most once per key
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        // most calls find a value, which can be done without locking
+        Node<TKey, TValue> node = findNode(key, key.hashCode());
+        if (node != null)
+        {
+            TValue value = node.value;
+
+            if (value != null)
+            {
+                return value;
+            }
+        }
+
+        return update(key, existing ->
+        {
+            if (existing == null)
+            {
+                return mapping.apply(key);
+            }
+
+            if (existing.value == null)
+            {
+                existing.value = mapping.apply(key);
+            }
+
+            return existing.value;
+        });
+    }
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception. never blocks
+    public TValue get(TKey key)
+    {
+        Node<TKey, TValue> node = findNode(key, key.hashCode());
+
+        // no element with that key could be found
+        if (node == null)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return node.value;
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key. never blocks
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        Node<TKey, TValue> node = findNode(key, key.hashCode());
+
+        return node == null
+                ? defaultValue
+                : node.value;
+    }
+
+    // returns true if the key is in the table, otherwise false. never blocks
+    public boolean contains(TKey key)
+    {
+        return findNode(key, key.hashCode()) != null;
+    }
+
+    // returns a string representation of the object
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        // all values are contained within two square brackets
+        sb.append('[');
+
+        AtomicReferenceArray<Node<TKey, TValue>> table = buckets;
+        for (int i = 0; i < table.length(); i++)
+        {
+            for (Node<TKey, TValue> current = table.get(i);
+                 current != null;
+                 current = current.next)
+            {
+                if (sb.length() > 1)
+                {
+                    sb.append(", ");
+                }
+
+                sb.append(current);
+            }
+        }
+
+        sb.append(']');
+        return sb.toString();
+    }
+
+    // returns a weakly consistent iterator over the keys of the hash table
+    @Override
+    public Iterator<TKey> iterator()
+    {
+        return new Iterator<TKey>()
+        {
+            // the bucket array at the time the iterator was created; a resize
+            // leaves it as it is
+            final AtomicReferenceArray<Node<TKey, TValue>> table = buckets;
+            int bucketIndex = 0;
+
+            // nextNode is the node whose key will be returned next
+            Node<TKey, TValue> nextNode = advance();
+
+            // finds the first node of the next non empty bucket
+            private Node<TKey, TValue> advance()
+            {
+                while (bucketIndex < table.length())
+                {
+                    Node<TKey, TValue> first = table.get(bucketIndex++);
+
+                    if (first != null)
+                    {
+                        return first;
+                    }
+                }
+
+                return null;
+            }
+
+            // returns true if there is a next value, otherwise false
+            @Override
+            public boolean hasNext()
+            {
+                return nextNode != null;
+            }
+
+            // returns the next key if there is one, otherwise a
+            // NoSuchException is thrown
+            @Override
+            public TKey next()
+            {
+                if (nextNode == null)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                Node<TKey, TValue> holder = nextNode;
+
+                // continue along the chain, or with the next bucket once
+                // the chain ends
+                nextNode = holder.next != null
+                        ? holder.next
+                        : advance();
+
+                return holder.key;
+            }
+        };
+    }
+
+    // test method, counts the words of a file on several threads at once
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        // the file to count the words of and the number of threads to use
+        List<String> lines = Files.readAllLines(new File(args[0]).toPath());
+        int threadCount = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        ConcurrentHashTable<String, Integer> frequencies =
+                new ConcurrentHashTable<>();
+
+        long start = System.nanoTime();
+
+        // every thread takes every threadCount:th line, starting from its
+        // own number
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++)
+        {
+            int first = t;
+            threads[t] = new Thread(() ->
+            {
+                for (int i = first; i < lines.size(); i += threadCount)
+                {
+                    for (String word : TextUtility.getWords(lines.get(i)))
+                    {
+                        frequencies.merge(
+                                word.toLowerCase(),
+                                1,
+                                Integer::sum);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        long time = System.nanoTime() - start;
+
+        System.out.printf(
+                "Counted %d distinct words on %d threads in %.4f seconds\n",
+                frequencies.size(),
+                threadCount,
+                time / 1e9);
+    }
+}
@@ -1,17 +1,24 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/23
-    Updated: 2020/09/27
+    Updated: 2026/10/18
     Purpose:
         The purpose of EvenHashDistributions is to show how evenly the
         inner hash function of String distributes hash values.
+        The hashes are counted in an ordered table from `SymbolTables`, which
+        picks a balanced tree for this write only workload, and printed in
+        ascending order.
+        To see how evenly the hashes fall into the buckets of a `HashTable`
+        rather than how the raw hashes spread, use `HashDistributionAnalyzer`.
     Usage:
         Run the main method and pipe in the contents of a file containing
         only spaces, newline characters, and/or blank spaces.
-        Requires `BinarySearchTree` to work
+        Requires `SymbolTables` and `TextUtility` to work
  */
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.util.Scanner;
 
 public class EvenHashDistributions
@@ -20,29 +27,42 @@ public class EvenHashDistributions
     {
         Scanner in = new Scanner(System.in);
 
-        BinarySearchTree<Integer, Integer> bst
-                = new BinarySearchTree<>();
+        // the hashes are only counted until they are all printed in order
+        SymbolTable<Integer, Integer> hashCounts = SymbolTables.create(
+                new SymbolTables.Workload(1 << 16, true, 0, Integer.class));
 
-        // read all lines for words and put them into the BST
+        // read all lines for words and put them into the table
         while (in.hasNextLine())
         {
             for (String word : TextUtility.getWords(in.nextLine()))
             {
-                // if the word is in the tree, get the value and increment it
-                // otherwise put the word in as key with value as 1
-                int hash = word.hashCode();
-                if (bst.contains(hash))
-                {
-                    bst.put(hash, bst.get(hash) + 1);
-                }
-                else
-                {
-                    bst.put(hash, 1);
-                }
+                // increment the count of the hash, starting at 1 the first
+                // time it is seen
+                hashCounts.merge(word.hashCode(), 1, Integer::sum);
             }
         }
 
-        // print out the BST to show the distribution
-        System.out.println(bst);
+        // print out the counts to show the distribution, streamed a hash at
+        // a time as the table may be too large to hold as a single string
+        BufferedWriter out = new BufferedWriter(
+                new OutputStreamWriter(System.out),
+                1 << 16);
+
+        out.write('[');
+        boolean first = true;
+        for (int hash : hashCounts)
+        {
+            if (!first)
+            {
+                out.write(", ");
+            }
+
+            out.write(String.format("{%d, %d}", hash, hashCounts.get(hash)));
+            first = false;
+        }
+        out.write(']');
+
+        out.newLine();
+        out.flush();
     }
 }
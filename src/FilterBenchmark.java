@@ -0,0 +1,146 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        FilterBenchmark compares the throughput of `TextFilter`, the filter
+        picked by `TextFilter.create()` (vectorized when the Vector API is
+        available), and the C filter in `c/filter_text.c` on the same input,
+        in MB/s.
+    Usage:
+        Run the main method with the file to filter as the first argument,
+        optionally followed by the path of the compiled C filter (defaults to
+        "c/filter") and the number of timed runs (defaults to 5).
+        Both filters write to a sink that throws the output away, so only
+        the filtering and the reading is measured.
+        Requires `TextFilter` to work.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+public class FilterBenchmark
+{
+    // runs not timed to let the JIT compile the filter first
+    private static final int WARM_UP_RUNS = 3;
+
+    // a channel throwing away everything written to it
+    private static class DiscardChannel implements WritableByteChannel
+    {
+        @Override
+        public int write(ByteBuffer source)
+        {
+            int written = source.remaining();
+            source.position(source.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    // returns the time in nanoseconds it took for `textFilter` to filter the
+    // file
+    private static long javaTime(File file, TextFilter textFilter)
+            throws IOException
+    {
+        try (FileChannel in = FileChannel.open(
+                file.toPath(),
+                StandardOpenOption.READ))
+        {
+            long start = System.nanoTime();
+            textFilter.filter(in, new DiscardChannel());
+            return System.nanoTime() - start;
+        }
+    }
+
+    // returns the time in nanoseconds it took for the C filter to filter the
+    // file, including starting the process
+    private static long cTime(File file, String filter)
+            throws IOException, InterruptedException
+    {
+        ProcessBuilder builder = new ProcessBuilder(filter)
+                .redirectInput(file)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        // the C filter declares `void main`, so its exit code is whatever
+        // happens to be left over and is not checked
+        long start = System.nanoTime();
+        builder.start().waitFor();
+        return System.nanoTime() - start;
+    }
+
+    // returns the throughput in MB/s for the given number of bytes and time
+    private static double megabytesPerSecond(long bytes, long nanoseconds)
+    {
+        return (bytes / 1e6) / (nanoseconds / 1e9);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        File file = new File(args[0]);
+        String filter = args.length > 1
+                ? args[1]
+                : "c/filter";
+        int runs = args.length > 2
+                ? Integer.parseInt(args[2])
+                : 5;
+
+        long bytes = file.length();
+
+        TextFilter scalar = new TextFilter();
+        TextFilter selected = TextFilter.create();
+
+        System.out.printf(
+                "Selected filter: %s\n",
+                selected.getClass().getName());
+
+        for (int i = 0; i < WARM_UP_RUNS; i++)
+        {
+            javaTime(file, scalar);
+            javaTime(file, selected);
+        }
+
+        // the best run of each filter is the one least disturbed by
+        // everything else running on the machine
+        long bestScalar = Long.MAX_VALUE;
+        long bestSelected = Long.MAX_VALUE;
+        long bestC = Long.MAX_VALUE;
+
+        System.out.println("Run, Scalar MB/s, Selected MB/s, C MB/s");
+        for (int run = 1; run <= runs; run++)
+        {
+            long scalarTime = javaTime(file, scalar);
+            long selectedTime = javaTime(file, selected);
+            long c = cTime(file, filter);
+
+            bestScalar = Math.min(bestScalar, scalarTime);
+            bestSelected = Math.min(bestSelected, selectedTime);
+            bestC = Math.min(bestC, c);
+
+            System.out.printf(
+                    "%d, %.1f, %.1f, %.1f\n",
+                    run,
+                    megabytesPerSecond(bytes, scalarTime),
+                    megabytesPerSecond(bytes, selectedTime),
+                    megabytesPerSecond(bytes, c));
+        }
+
+        System.out.printf(
+                "Best, %.1f, %.1f, %.1f\n",
+                megabytesPerSecond(bytes, bestScalar),
+                megabytesPerSecond(bytes, bestSelected),
+                megabytesPerSecond(bytes, bestC));
+    }
+}
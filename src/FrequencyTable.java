@@ -0,0 +1,378 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        FrequencyTable counts occurrences of strings with an open addressing
+        hash table using linear probing. The keys, their hashes, and their
+        counts are kept in three flat arrays so no node or boxed Integer is
+        created per entry, and incrementing an existing key allocates
+        nothing. Keys can be given as any CharSequence; a String is only
+        created for keys that are new to the table.
+        Memory per entry, on a 64-bit JVM with compressed references and
+        not counting the key strings themselves:
+            HashTable<String, Integer>: a 32 byte node, a 16 byte Integer
+            for counts above 127, and a 4 byte bucket reference at up to
+            0.75 entries per bucket; about 53 bytes.
+            FrequencyTable: a 4 byte key reference, a 4 byte hash, and a 4
+            byte count per slot at up to 0.5 entries per slot; about 24
+            bytes.
+    Usage:
+        Import the class to count strings or run the main method with text
+        piped in to compare the heap used by this table and by a HashTable
+        counting the same words.
+        Requires `HashTable` and `TextUtility` to work.
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+public class FrequencyTable implements Iterable<String>
+{
+    // capacities are always powers of two so the slot of a hash can be
+    // found by masking
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final double LOAD_FACTOR = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // slot i is empty if keys[i] is null, otherwise hashes[i] is the hash of
+    // keys[i] and counts[i] is its count
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+
+    private int size;
+    private int threshold;
+
+    public FrequencyTable()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrequencyTable(int expectedSize)
+    {
+        if (expectedSize < 0 || expectedSize > MAX_CAPACITY * LOAD_FACTOR)
+        {
+            throw new IllegalArgumentException(
+                    "expected size must be between 0 and "
+                            + (int)(MAX_CAPACITY * LOAD_FACTOR)
+                            + ": " + expectedSize);
+        }
+
+        // the smallest power of two that fits `expectedSize` entries without
+        // going over the load factor
+        int capacity = 2;
+        while (capacity * LOAD_FACTOR < expectedSize)
+        {
+            capacity *= 2;
+        }
+
+        allocate(capacity);
+    }
+
+    // replaces the arrays with empty arrays of the given capacity
+    private void allocate(int capacity)
+    {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        threshold = (int)(capacity * LOAD_FACTOR);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    // returns the number of slots in the table
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    // returns the hash of the key with the high bits mixed into the low bits,
+    // as only the low bits are used to pick a slot.
+    // keys that aren't strings are hashed the same way as `String.hashCode()`
+    // so that they find the slot of the equal string. shared with
+    // `PostingTable`
+    static int hash(CharSequence key)
+    {
+        int h;
+
+        if (key instanceof String)
+        {
+            h = key.hashCode();
+        }
+        else
+        {
+            h = 0;
+            for (int i = 0; i < key.length(); i++)
+            {
+                h = 31 * h + key.charAt(i);
+            }
+        }
+
+        return h ^ (h >>> 16);
+    }
+
+    // returns the slot of the key, or the empty slot where it would be
+    // placed if it isn't in the table
+    private int slotOf(CharSequence key, int hash)
+    {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+
+        // before equality is checked, hash equality is checked as comparing
+        // two int values is cheaper than comparing two strings
+        while (keys[slot] != null
+                && !(hashes[slot] == hash && keys[slot].contentEquals(key)))
+        {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    // doubles the capacity and places every entry in its new slot
+    private void grow()
+    {
+        if (keys.length == MAX_CAPACITY)
+        {
+            throw new IllegalStateException(
+                    "table is at its maximum capacity of " + MAX_CAPACITY);
+        }
+
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] == null)
+            {
+                continue;
+            }
+
+            // all keys are distinct, so only an empty slot has to be found
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+
+    // adds `amount` to the count of the key and returns the slot of the key,
+    // claiming an empty slot and counting from 0 if the key isn't in the
+    // table. a String of the key is only created in that case
+    private int addToSlot(CharSequence key, int amount)
+    {
+        int hash = hash(key);
+        int slot = slotOf(key, hash);
+
+        // the key is new, claim the empty slot for it
+        if (keys[slot] == null)
+        {
+            keys[slot] = key.toString();
+            hashes[slot] = hash;
+            counts[slot] = amount;
+
+            if (++size > threshold)
+            {
+                // the entry moves when the table grows, find it again
+                grow();
+                slot = slotOf(key, hash);
+            }
+
+            return slot;
+        }
+
+        counts[slot] += amount;
+        return slot;
+    }
+
+    // adds `amount` to the count of the key, starting from 0 if the key
+    // isn't in the table, and returns the new count
+    public int add(CharSequence key, int amount)
+    {
+        // the table may grow while adding, so the slot is found before the
+        // array is read
+        int slot = addToSlot(key, amount);
+        return counts[slot];
+    }
+
+    // adds one to the count of the key and returns the new count
+    public int increment(CharSequence key)
+    {
+        return add(key, 1);
+    }
+
+    // adds one to the count of the key and returns the String stored for
+    // the key, so that words read as reused character sequences are only
+    // turned into a String the first time they are seen
+    public String incrementAndGetKey(CharSequence key)
+    {
+        int slot = addToSlot(key, 1);
+        return keys[slot];
+    }
+
+    // returns the count of the key or throws a NoSuchElement exception
+    public int get(CharSequence key)
+    {
+        int slot = slotOf(key, hash(key));
+
+        if (keys[slot] == null)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return counts[slot];
+    }
+
+    // returns the count of the key, or `defaultValue` if there is no such key
+    public int getOrDefault(CharSequence key, int defaultValue)
+    {
+        int slot = slotOf(key, hash(key));
+
+        return keys[slot] == null
+                ? defaultValue
+                : counts[slot];
+    }
+
+    public boolean contains(CharSequence key)
+    {
+        return keys[slotOf(key, hash(key))] != null;
+    }
+
+    // returns a string representation of the object
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        // all values are contained within two square brackets
+        sb.append('[');
+
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != null)
+            {
+                if (sb.length() > 1)
+                {
+                    sb.append(", ");
+                }
+
+                sb.append(String.format("{%s, %d}", keys[i], counts[i]));
+            }
+        }
+
+        sb.append(']');
+        return sb.toString();
+    }
+
+    // returns an iterator over the keys of the table
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new Iterator<String>()
+        {
+            // slot is the index of the next slot to look at
+            int slot = 0;
+
+            // moves `slot` to the next occupied slot and returns true if
+            // there is one, otherwise false
+            @Override
+            public boolean hasNext()
+            {
+                while (slot < keys.length && keys[slot] == null)
+                {
+                    slot++;
+                }
+
+                return slot < keys.length;
+            }
+
+            // returns the next key if there is one, otherwise a
+            // NoSuchException is thrown
+            @Override
+            public String next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+
+                return keys[slot++];
+            }
+        };
+    }
+
+    // returns the heap in use after asking for a garbage collection
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++)
+        {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // test method, compares the heap used per entry with a HashTable
+    public static void main(String[] args)
+    {
+        // read all the words first so the strings themselves are not counted
+        // against either table
+        Scanner in = new Scanner(System.in);
+        List<String> words = new ArrayList<>();
+
+        while (in.hasNextLine())
+        {
+            words.addAll(TextUtility.getWords(in.nextLine()));
+        }
+
+        long before = usedMemory();
+
+        FrequencyTable frequencies = new FrequencyTable();
+        for (String word : words)
+        {
+            frequencies.increment(word);
+        }
+
+        long frequencyBytes = usedMemory() - before;
+        before = usedMemory();
+
+        HashTable<String, Integer> hashTable = new HashTable<>();
+        for (String word : words)
+        {
+            hashTable.merge(word, 1, Integer::sum);
+        }
+
+        long hashTableBytes = usedMemory() - before;
+
+        System.out.printf("Distinct words: %d\n", frequencies.size());
+        System.out.printf(
+                "FrequencyTable: %.1f bytes per entry\n",
+                frequencyBytes / (double)frequencies.size());
+        System.out.printf(
+                "HashTable:      %.1f bytes per entry\n",
+                hashTableBytes / (double)hashTable.size());
+    }
+}
@@ -0,0 +1,311 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        FrozenSymbolTable is a read only copy of an
+        `AssociativeArraySymbolTable` laid out for fast lookups.
+        The keys are stored in breadth first (Eytzinger) order: the middle
+        key first, then the middles of both halves, and so on, so that the
+        children of the key at k are at 2k and 2k + 1. The first levels of
+        every search are then the same few cache lines, and the keys a
+        search may go to next lie next to each other, instead of being
+        spread over the whole array as with binary search.
+        Keys and values are kept in separate arrays, and for String keys the
+        first four characters of every key are packed into a long in a
+        third array, in the same breadth first order. Comparing two packed
+        prefixes orders the keys the same as `String.compareTo`, so a search
+        only reads a key String when the prefixes are equal.
+    Usage:
+        Get a table through `AssociativeArraySymbolTable.freeze()`, or run
+        the main method with a number of millions of words to compare the
+        lookups of both tables on random words.
+        Requires `AssociativeArraySymbolTable` to work.
+ */
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class FrozenSymbolTable<TKey extends Comparable<TKey>, TValue>
+{
+    // the number of characters packed into a prefix
+    private static final int PREFIX_LENGTH = 4;
+
+    // keys[k] and values[k] for 1 <= k <= size, in breadth first order;
+    // index 0 is unused so that the children of k are 2k and 2k + 1
+    private final Object[] keys;
+    private final Object[] values;
+
+    // the packed prefixes of the keys in the same order, or null if the keys
+    // aren't Strings
+    private final long[] prefixes;
+
+    private final int size;
+
+    // creates a table of the first `size` keys of `sortedKeys`, which must
+    // be in ascending order and distinct, and their values
+    FrozenSymbolTable(Object[] sortedKeys, Object[] sortedValues, int size)
+    {
+        this.size = size;
+        this.keys = new Object[size + 1];
+        this.values = new Object[size + 1];
+
+        layOut(sortedKeys, sortedValues, 0, 1);
+
+        boolean allStrings = true;
+        for (int k = 1; k <= size && allStrings; k++)
+        {
+            allStrings = keys[k] instanceof String;
+        }
+
+        if (allStrings)
+        {
+            prefixes = new long[size + 1];
+
+            for (int k = 1; k <= size; k++)
+            {
+                prefixes[k] = prefix((String)keys[k]);
+            }
+        }
+        else
+        {
+            prefixes = null;
+        }
+    }
+
+    // recursive function to place the sorted keys from `next` on into the
+    // sub tree of k in infix order, which puts them in breadth first order.
+    // returns the index of the next sorted key. the recursion is only as
+    // deep as the tree is high, which is lg n
+    private int layOut(Object[] sortedKeys, Object[] sortedValues, int next, int k)
+    {
+        if (k > size)
+        {
+            return next;
+        }
+
+        next = layOut(sortedKeys, sortedValues, next, 2 * k);
+
+        keys[k] = sortedKeys[next];
+        values[k] = sortedValues[next];
+        next++;
+
+        return layOut(sortedKeys, sortedValues, next, 2 * k + 1);
+    }
+
+    // packs the first `PREFIX_LENGTH` characters of the string into a long,
+    // the first character in the highest bits and missing characters as 0.
+    // comparing two prefixes as unsigned numbers gives the same order as
+    // comparing the strings, unless the prefixes are equal
+    private static long prefix(String s)
+    {
+        long prefix = 0;
+
+        for (int i = 0; i < PREFIX_LENGTH; i++)
+        {
+            prefix <<= 16;
+
+            if (i < s.length())
+            {
+                prefix |= s.charAt(i);
+            }
+        }
+
+        return prefix;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    // returns the breadth first index of the key, or 0 if there is no such
+    // key
+    @SuppressWarnings("unchecked")
+    private int find(TKey key)
+    {
+        int k = 1;
+
+        if (prefixes == null)
+        {
+            while (k <= size)
+            {
+                int comparison = key.compareTo((TKey)keys[k]);
+
+                if (comparison == 0)
+                {
+                    return k;
+                }
+
+                // the right child if the key is greater, otherwise the left
+                k = 2 * k + (comparison > 0 ? 1 : 0);
+            }
+
+            return 0;
+        }
+
+        long prefix = prefix((String)key);
+
+        while (k <= size)
+        {
+            int comparison = Long.compareUnsigned(prefix, prefixes[k]);
+
+            // only equal prefixes need the whole keys to be compared
+            if (comparison == 0)
+            {
+                comparison = key.compareTo((TKey)keys[k]);
+
+                if (comparison == 0)
+                {
+                    return k;
+                }
+            }
+
+            k = 2 * k + (comparison > 0 ? 1 : 0);
+        }
+
+        return 0;
+    }
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception
+    @SuppressWarnings("unchecked")
+    public TValue get(TKey key)
+    {
+        int k = find(key);
+
+        if (k == 0)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return (TValue)values[k];
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    @SuppressWarnings("unchecked")
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        int k = find(key);
+
+        return k == 0
+                ? defaultValue
+                : (TValue)values[k];
+    }
+
+    // returns true if an element with the given key exists, otherwise false
+    public boolean contains(TKey key)
+    {
+        return find(key) != 0;
+    }
+
+    // returns the string representation of the object, the pairs in breadth
+    // first order
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int k = 1; k <= size; k++)
+        {
+            if (k > 1)
+            {
+                sb.append(", ");
+            }
+
+            sb.append('{')
+                    .append(keys[k])
+                    .append(", ")
+                    .append(values[k])
+                    .append('}');
+        }
+
+        return sb.append(']').toString();
+    }
+
+    // the amount of times to repeat the lookups
+    private static final int TEST_REPETITION = 5;
+
+    // returns a random word of 3 to 10 lower case letters
+    private static String randomWord(Random random)
+    {
+        char[] word = new char[3 + random.nextInt(8)];
+
+        for (int i = 0; i < word.length; i++)
+        {
+            word[i] = (char)('a' + random.nextInt(26));
+        }
+
+        return new String(word);
+    }
+
+    // test method, compares the lookups of both tables on n million random
+    // words, looked up in a random order
+    public static void main(String[] args)
+    {
+        int wordCount = (int)(Double.parseDouble(args[0]) * 1_000_000);
+
+        Random random = new Random(0);
+        String[] words = new String[wordCount];
+        Integer[] counts = new Integer[wordCount];
+        for (int i = 0; i < wordCount; i++)
+        {
+            words[i] = randomWord(random);
+            counts[i] = i;
+        }
+
+        AssociativeArraySymbolTable<String, Integer> st =
+                new AssociativeArraySymbolTable<>();
+        st.bulkLoad(words, counts);
+
+        FrozenSymbolTable<String, Integer> frozen = st.freeze();
+
+        // look the words up in another order than they were created in
+        String[] lookups = words.clone();
+        for (int i = lookups.length - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            String word = lookups[i];
+            lookups[i] = lookups[j];
+            lookups[j] = word;
+        }
+
+        System.out.println("Sorted Array, Frozen, Word Count");
+        for (int repetition = 0; repetition < TEST_REPETITION; repetition++)
+        {
+            // an accumulated sum keeps the lookups from being optimized away
+            long sum = 0;
+
+            long start = System.nanoTime();
+            for (String word : lookups)
+            {
+                sum += st.getOrDefault(word, 0);
+            }
+            long stTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String word : lookups)
+            {
+                sum -= frozen.getOrDefault(word, 0);
+            }
+            long frozenTime = System.nanoTime() - start;
+
+            if (sum != 0)
+            {
+                throw new IllegalStateException("the tables disagree");
+            }
+
+            System.out.printf(
+                    "%d, %d, %d\n",
+                    stTime / wordCount,
+                    frozenTime / wordCount,
+                    st.size());
+        }
+    }
+}
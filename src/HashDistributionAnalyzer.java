@@ -0,0 +1,345 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        HashDistributionAnalyzer shows how evenly the distinct words of a
+        text fall into the buckets of a `HashTable`, for several bucket
+        counts and hash functions, so that both can be picked from data.
+        The words are counted with `TextUtility.countWords`, then for every
+        hash function and bucket count every distinct word is put into the
+        bucket `HashTable` would put it in, `(hash & 0x7fffffff) % buckets`,
+        and the chains are scored:
+            chi squared / df:   the chi squared statistic of the bucket
+                                counts against an even spread, divided by
+                                its degrees of freedom, buckets - 1. About 1
+                                for a hash as good as random, higher the
+                                more the keys clump together
+            z:                  how many standard deviations chi squared is
+                                from that of a random hash; above 3 the hash
+                                is very likely worse than random
+            empty:              the share of empty buckets, 1/e^(load) for a
+                                random hash
+            longest chain
+            probes per hit:     the mean nodes probed to find a word of the
+                                table, every word as likely, against
+                                1 + (n - 1) / 2m for a random hash
+            probes per word:    the same with every word as likely as it is
+                                common in the text, which is what looking up
+                                the words of the text costs
+        The hash functions are:
+            string:     `String.hashCode`, the one `HashTable` uses
+            spread:     the hash code with its high half xored into its low
+                        half, like `java.util.HashMap`
+            fnv1a:      32-bit FNV-1a over the characters
+            murmur3:    the hash code run through the finalizer of
+                        MurmurHash3, which mixes every bit into every other
+    Usage:
+        Run the main method with a file containing only alphabetical,
+        newline, and/or blank characters, optionally followed by the bucket
+        counts to try separated by commas. By default those are the powers of
+        two from half to twice the number of distinct words, each with the
+        prime just above it, and the bucket count a `HashTable` of the words
+        would grow to.
+        The scores are printed as CSV, followed by the best hash function
+        for every bucket count.
+        Requires `FrequencyTable`, `HashTable`, and `TextUtility` to work.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+public class HashDistributionAnalyzer
+{
+    public enum HashFunction
+    {
+        STRING,
+        SPREAD,
+        FNV1A,
+        MURMUR3
+    }
+
+    private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    // returns the hash of the word by the given function
+    public static int hash(HashFunction function, String word)
+    {
+        switch (function)
+        {
+            case SPREAD:
+            {
+                int h = word.hashCode();
+                return h ^ (h >>> 16);
+            }
+
+            case FNV1A:
+            {
+                int h = FNV_OFFSET_BASIS;
+                for (int i = 0; i < word.length(); i++)
+                {
+                    char c = word.charAt(i);
+
+                    // a byte at a time, the low byte of the character first
+                    h = (h ^ (c & 0xff)) * FNV_PRIME;
+                    h = (h ^ (c >>> 8)) * FNV_PRIME;
+                }
+                return h;
+            }
+
+            case MURMUR3:
+            {
+                int h = word.hashCode();
+                h ^= h >>> 16;
+                h *= 0x85ebca6b;
+                h ^= h >>> 13;
+                h *= 0xc2b2ae35;
+                h ^= h >>> 16;
+                return h;
+            }
+
+            case STRING:
+            default:
+                return word.hashCode();
+        }
+    }
+
+    // the scores of one hash function and bucket count
+    public static class Score
+    {
+        public final HashFunction function;
+        public final int buckets;
+        public final int keys;
+        public final double chiSquaredPerDegree;
+        public final double z;
+        public final double emptyRatio;
+        public final int longestChain;
+        public final double probesPerHit;
+        public final double probesPerWord;
+
+        public Score(
+                HashFunction function,
+                int buckets,
+                int keys,
+                double chiSquaredPerDegree,
+                double z,
+                double emptyRatio,
+                int longestChain,
+                double probesPerHit,
+                double probesPerWord)
+        {
+            this.function = function;
+            this.buckets = buckets;
+            this.keys = keys;
+            this.chiSquaredPerDegree = chiSquaredPerDegree;
+            this.z = z;
+            this.emptyRatio = emptyRatio;
+            this.longestChain = longestChain;
+            this.probesPerHit = probesPerHit;
+            this.probesPerWord = probesPerWord;
+        }
+
+        // returns the probes per hit of a random hash function
+        public double idealProbesPerHit()
+        {
+            return 1 + (keys - 1) / (2.0 * buckets);
+        }
+    }
+
+    // puts the hashes into `buckets` buckets and returns their scores.
+    // `counts[i]` is the number of times the word of `hashes[i]` occurs
+    public static Score score(
+            HashFunction function,
+            int[] hashes,
+            int[] counts,
+            int buckets)
+    {
+        int[] chains = new int[buckets];
+        int[] bucketOf = new int[hashes.length];
+
+        for (int i = 0; i < hashes.length; i++)
+        {
+            bucketOf[i] = (hashes[i] & 0x7fffffff) % buckets;
+            chains[bucketOf[i]]++;
+        }
+
+        int keys = hashes.length;
+        double expected = (double)keys / buckets;
+
+        double chiSquared = 0;
+        long probes = 0;
+        int empty = 0;
+        int longestChain = 0;
+        for (int chain : chains)
+        {
+            chiSquared += (chain - expected) * (chain - expected) / expected;
+
+            // finding every key of a chain of n probes 1 + 2 + ... + n nodes
+            probes += (long)chain * (chain + 1) / 2;
+
+            empty += chain == 0 ? 1 : 0;
+            longestChain = Math.max(longestChain, chain);
+        }
+
+        // a word is on average halfway down its chain
+        double weightedProbes = 0;
+        long words = 0;
+        for (int i = 0; i < hashes.length; i++)
+        {
+            weightedProbes += counts[i] * (chains[bucketOf[i]] + 1) / 2.0;
+            words += counts[i];
+        }
+
+        // chi squared of a random hash has buckets - 1 degrees of freedom,
+        // a mean of that, and a variance of twice that
+        double degrees = buckets - 1;
+
+        return new Score(
+                function,
+                buckets,
+                keys,
+                chiSquared / degrees,
+                (chiSquared - degrees) / Math.sqrt(2 * degrees),
+                (double)empty / buckets,
+                longestChain,
+                (double)probes / keys,
+                weightedProbes / words);
+    }
+
+    // returns the bucket count a `HashTable` starting at the default size
+    // grows to for the number of keys
+    private static int hashTableCapacity(int keys)
+    {
+        int capacity = HashTable.DEFAULT_CAPACITY;
+
+        while (keys > HashTable.DEFAULT_LOAD_FACTOR * capacity)
+        {
+            capacity *= 2;
+        }
+
+        return capacity;
+    }
+
+    // returns the default bucket counts for the number of keys
+    private static List<Integer> defaultBucketCounts(int keys)
+    {
+        TreeSet<Integer> bucketCounts = new TreeSet<>();
+
+        int power = Integer.highestOneBit(Math.max(keys / 2, 1));
+        for (int i = 0; i < 3 && power > 0; i++, power <<= 1)
+        {
+            bucketCounts.add(power);
+            bucketCounts.add(BigInteger.valueOf(power).nextProbablePrime().intValue());
+        }
+
+        bucketCounts.add(hashTableCapacity(keys));
+
+        return new ArrayList<>(bucketCounts);
+    }
+
+    private static final String CSV_HEADER =
+            "function,buckets,keys,load_factor,chi_squared_per_df,z,"
+            + "empty_ratio,longest_chain,probes_per_hit,ideal_probes_per_hit,"
+            + "probes_per_word";
+
+    private static String toCsv(Score score)
+    {
+        return String.format(
+                Locale.ROOT,
+                "%s,%d,%d,%.3f,%.3f,%.1f,%.4f,%d,%.4f,%.4f,%.4f",
+                score.function.name().toLowerCase(),
+                score.buckets,
+                score.keys,
+                (double)score.keys / score.buckets,
+                score.chiSquaredPerDegree,
+                score.z,
+                score.emptyRatio,
+                score.longestChain,
+                score.probesPerHit,
+                score.idealProbesPerHit(),
+                score.probesPerWord);
+    }
+
+    // test method, scores the words of the given file
+    public static void main(String[] args) throws IOException
+    {
+        FrequencyTable frequencies = TextUtility.countWords(new File(args[0]));
+
+        String[] words = new String[frequencies.size()];
+        int[] counts = new int[words.length];
+        int n = 0;
+        for (String word : frequencies)
+        {
+            words[n] = word;
+            counts[n] = frequencies.get(word);
+            n++;
+        }
+
+        List<Integer> bucketCounts = new ArrayList<>();
+        if (args.length > 1)
+        {
+            for (String bucketCount : args[1].split(","))
+            {
+                bucketCounts.add(Integer.parseInt(bucketCount.trim()));
+            }
+        }
+        else
+        {
+            bucketCounts = defaultBucketCounts(words.length);
+        }
+
+        // the hashes of the words by every function
+        HashFunction[] functions = HashFunction.values();
+        int[][] hashes = new int[functions.length][words.length];
+        for (HashFunction function : functions)
+        {
+            for (int i = 0; i < words.length; i++)
+            {
+                hashes[function.ordinal()][i] = hash(function, words[i]);
+            }
+        }
+
+        System.out.println(CSV_HEADER);
+
+        List<Score> best = new ArrayList<>();
+        for (int buckets : bucketCounts)
+        {
+            Score bestScore = null;
+
+            for (HashFunction function : functions)
+            {
+                Score score = score(
+                        function,
+                        hashes[function.ordinal()],
+                        counts,
+                        buckets);
+                System.out.println(toCsv(score));
+
+                if (bestScore == null || score.probesPerWord < bestScore.probesPerWord)
+                {
+                    bestScore = score;
+                }
+            }
+
+            best.add(bestScore);
+        }
+
+        System.out.println();
+        System.out.println("Fewest probes per word of the text:");
+        for (Score score : best)
+        {
+            System.out.printf(
+                    Locale.ROOT,
+                    "%d buckets: %s, %.4f probes per word, chi squared / df %.3f\n",
+                    score.buckets,
+                    score.function.name().toLowerCase(),
+                    score.probesPerWord,
+                    score.chiSquaredPerDegree);
+        }
+    }
+}
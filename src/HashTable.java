@@ -1,22 +1,37 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/23
-    Updated: 2020/09/27
+    Updated: 2026/10/18
     Purpose:
         HashTable<TKey, TValue> attempts to implement a hash table with
         separate chaining.
-        This class only implements searching, retrieval, and appending.
+        The bucket array doubles once the load factor is exceeded; the
+        elements are moved over a few buckets at a time on each insertion so
+        no single insertion pays for the whole resize.
+        This class only implements searching, retrieval, and appending,
+        including single lookup updates through merge and compute.
+        With the system property "hashtable.metrics" set to true, every
+        table counts the nodes probed by its lookups and insertions, its
+        collisions, and its resizes. `getMetrics` returns them together with
+        the chain lengths and load of the table as a `HashTableMetrics`, and
+        `HashTableMetrics.register` exports them through JMX. The property
+        is read once into a constant, so when it isn't set the JIT removes
+        the counting and the tables cost nothing more than without it.
     Usage:
         Import the class to use the hash table or run the main method
         to run its tests. The input for the tests must be representation
         of "String{blank space}Integer".
  */
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
-public class HashTable<TKey, TValue> implements Iterable<TKey>
+public class HashTable<TKey, TValue>
+        implements SymbolTable<TKey, TValue>, HashTableMXBean
 {
     private static class Node<TKey, TValue>
     {
@@ -24,6 +39,10 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
         public TValue value;
         public Node<TKey, TValue> next;
 
+        // the hash of the key is cached so that rehashing and chain walks
+        // never have to call `hashCode()` on the stored keys again
+        public int hash;
+
         @Override
         public String toString()
         {
@@ -34,17 +53,103 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
         }
     }
 
-    private final Node<TKey, TValue>[] buckets;
+    // the counters of a table with metrics enabled
+    private static class Counters
+    {
+        public long reads;
+        public long readProbes;
+        public long maxReadProbes;
+        public long writes;
+        public long writeProbes;
+        public long maxWriteProbes;
+        public long collisions;
+        public long resizes;
+
+        // counts a lookup that probed the given number of nodes
+        public void countLookup(boolean isWrite, long probes)
+        {
+            if (isWrite)
+            {
+                writes++;
+                writeProbes += probes;
+                maxWriteProbes = Math.max(maxWriteProbes, probes);
+            }
+            else
+            {
+                reads++;
+                readProbes += probes;
+                maxReadProbes = Math.max(maxReadProbes, probes);
+            }
+        }
+    }
+
+    // whether the tables count their metrics, read once so that the JIT can
+    // remove the counting when they don't
+    static final boolean METRICS_ENABLED = Boolean.getBoolean("hashtable.metrics");
+
+    static final int DEFAULT_CAPACITY = 128;
+    static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    // the number of old buckets that are moved into the new bucket array for
+    // every `put` while a resize is in progress
+    private static final int MIGRATION_STEP = 4;
+
+    private Node<TKey, TValue>[] buckets;
     private int size;
 
+    // the ratio of elements to buckets that causes the bucket array to
+    // double in size
+    private final double loadFactor;
+
+    // the bucket array that is being migrated into `buckets`, null if no
+    // resize is in progress. every bucket below `migrationIndex` has
+    // already been moved
+    private Node<TKey, TValue>[] oldBuckets;
+    private int migrationIndex;
+
+    // null unless metrics are enabled
+    private Counters counters = METRICS_ENABLED
+            ? new Counters()
+            : null;
+
     public HashTable()
     {
-        buckets = (Node<TKey, TValue>[])new Node[128];
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
     }
 
     public HashTable(int size)
     {
-        buckets = (Node<TKey, TValue>[])new Node[size];
+        this(size, DEFAULT_LOAD_FACTOR);
+    }
+
+    // returns a table with enough buckets to hold `expectedSize` elements at
+    // the default load factor without growing
+    public static <TKey, TValue> HashTable<TKey, TValue> withExpectedSize(int expectedSize)
+    {
+        int capacity = (int)Math.ceil(expectedSize / DEFAULT_LOAD_FACTOR);
+
+        return new HashTable<>(Math.max(DEFAULT_CAPACITY, capacity));
+    }
+
+    // creates a table with `initialCapacity` buckets that doubles its bucket
+    // array once there are more than `loadFactor` elements per bucket.
+    // a load factor of Double.POSITIVE_INFINITY gives a fixed size table
+    public HashTable(int initialCapacity, double loadFactor)
+    {
+        if (initialCapacity <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "initial capacity must be positive: " + initialCapacity);
+        }
+
+        if (!(loadFactor > 0))
+        {
+            throw new IllegalArgumentException(
+                    "load factor must be positive: " + loadFactor);
+        }
+
+        buckets = (Node<TKey, TValue>[])new Node[initialCapacity];
+        this.loadFactor = loadFactor;
     }
 
 
@@ -53,74 +158,344 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
         return size;
     }
 
-    // returns the hash index for the given key
-    private int hashIndex(TKey key)
+    // returns the number of buckets currently used, not counting the buckets
+    // of a resize in progress
+    public int capacity()
+    {
+        return buckets.length;
+    }
+
+    // returns true while the elements of a previous bucket array are still
+    // being moved into the current one
+    public boolean isResizing()
+    {
+        return oldBuckets != null;
+    }
+
+    // counts the lengths of the chains of the bucket array into
+    // `chainLengths`, from `from` on, growing it if needed. returns the
+    // counts
+    private static long[] countChains(Node<?, ?>[] table, int from, long[] chainLengths)
+    {
+        for (int i = from; i < table.length; i++)
+        {
+            int length = 0;
+            for (Node<?, ?> current = table[i]; current != null; current = current.next)
+            {
+                length++;
+            }
+
+            if (length >= chainLengths.length)
+            {
+                chainLengths = Arrays.copyOf(chainLengths, length + 1);
+            }
+
+            chainLengths[length]++;
+        }
+
+        return chainLengths;
+    }
+
+    // returns a snapshot of the metrics of the table. the chains are counted
+    // when the snapshot is taken, the probes, collisions, and resizes only
+    // if metrics are enabled. the snapshot is taken without any locking, so
+    // it may be slightly off if the table is written to meanwhile
+    @Override
+    public HashTableMetrics getMetrics()
+    {
+        // the buckets of a resize in progress still hold chains as well
+        Node<TKey, TValue>[] old = oldBuckets;
+        long[] chainLengths = countChains(buckets, 0, new long[1]);
+        if (old != null)
+        {
+            chainLengths = countChains(old, migrationIndex, chainLengths);
+        }
+
+        Counters counts = METRICS_ENABLED
+                ? counters
+                : new Counters();
+
+        return new HashTableMetrics(
+                METRICS_ENABLED,
+                size,
+                buckets.length,
+                chainLengths,
+                counts.reads,
+                counts.readProbes,
+                counts.maxReadProbes,
+                counts.writes,
+                counts.writeProbes,
+                counts.maxWriteProbes,
+                counts.collisions,
+                counts.resizes);
+    }
+
+    // starts counting the probes, collisions, and resizes from zero
+    @Override
+    public void resetCounters()
+    {
+        if (METRICS_ENABLED)
+        {
+            counters = new Counters();
+        }
+    }
+
+    // returns the hash index for the given hash in a bucket array of the
+    // given length
+    private static int hashIndex(int hash, int length)
     {
         // masked with 0x7fffffff to remove the negative sign then modulo the
         // length of the bucket array to limit the range of the index to
         // the buckets.
-        return (key.hashCode() & 0x7fffffff) % buckets.length;
+        return (hash & 0x7fffffff) % length;
     }
 
-    // adds a key and an associated value to the table
-    public void put(TKey key, TValue value)
+    // returns the bucket array that holds the given hash; the old bucket
+    // array while its bucket for the hash has not been migrated yet,
+    // otherwise the current one
+    private Node<TKey, TValue>[] tableFor(int hash)
+    {
+        if (oldBuckets != null
+                && hashIndex(hash, oldBuckets.length) >= migrationIndex)
+        {
+            return oldBuckets;
+        }
+
+        return buckets;
+    }
+
+    // returns the node for the key, or null if there is no such node.
+    // `isWrite` tells which counter the probes go to
+    private Node<TKey, TValue> findNode(TKey key, int hash, boolean isWrite)
     {
+        Node<TKey, TValue>[] table = tableFor(hash);
+        Node<TKey, TValue> current = table[hashIndex(hash, table.length)];
+
+        // before equality is checked, hashcode equality is checked
+        // this is because the hashcode is stored in the node and checking
+        // two int values is faster than checking the equality of two
+        // entire objects
+        int probes = 0;
+        while (current != null
+                && !(current.hash == hash && current.key.equals(key)))
+        {
+            current = current.next;
+            probes++;
+        }
+
+        if (METRICS_ENABLED)
+        {
+            // the found node is probed as well
+            counters.countLookup(
+                    isWrite,
+                    current != null ? probes + 1 : probes);
+        }
+
+        return current;
+    }
+
+    // moves up to `steps` buckets from the old bucket array into the
+    // current one, relinking the existing nodes instead of copying them
+    private void migrate(int steps)
+    {
+        for (; steps > 0 && migrationIndex < oldBuckets.length;
+             steps--, migrationIndex++)
+        {
+            Node<TKey, TValue> current = oldBuckets[migrationIndex];
+            oldBuckets[migrationIndex] = null;
+
+            while (current != null)
+            {
+                Node<TKey, TValue> next = current.next;
+
+                int index = hashIndex(current.hash, buckets.length);
+                current.next = buckets[index];
+                buckets[index] = current;
+
+                current = next;
+            }
+        }
+
+        // every bucket has been moved, the old array is no longer needed
+        if (migrationIndex >= oldBuckets.length)
+        {
+            oldBuckets = null;
+            migrationIndex = 0;
+        }
+    }
+
+    // starts moving the elements into a bucket array twice the size once the
+    // load factor has been exceeded
+    private void growIfNeeded()
+    {
+        if (size <= loadFactor * buckets.length)
+        {
+            return;
+        }
+
+        // a very small load factor may exceed the threshold again before the
+        // previous resize is done, finish that one first
+        if (oldBuckets != null)
+        {
+            migrate(oldBuckets.length);
+        }
+
+        // the bucket array cannot grow any further
+        if (buckets.length > Integer.MAX_VALUE / 2)
+        {
+            return;
+        }
+
+        oldBuckets = buckets;
+        buckets = (Node<TKey, TValue>[])new Node[oldBuckets.length * 2];
+        migrationIndex = 0;
+
+        if (METRICS_ENABLED)
+        {
+            counters.resizes++;
+        }
+    }
+
+    // adds a new node first in the bucket of the hash, in the old bucket
+    // array if that bucket is yet to be migrated. the key must not already
+    // be in the table
+    private void addNode(TKey key, int hash, TValue value)
+    {
+        Node<TKey, TValue>[] table = tableFor(hash);
+        int hashIndex = hashIndex(hash, table.length);
+
+        if (METRICS_ENABLED && table[hashIndex] != null)
+        {
+            counters.collisions++;
+        }
+
         Node<TKey, TValue> newNode = new Node<>();
         newNode.key = key;
         newNode.value = value;
+        newNode.hash = hash;
+        newNode.next = table[hashIndex];
 
-        // bucket index created from the hash
-        int hashIndex = hashIndex(key);
+        table[hashIndex] = newNode;
+        size++;
 
-        // the first item for the index is null which means there will not be
-        // any items of that hash in the bucket
-        if (buckets[hashIndex] == null)
+        growIfNeeded();
+    }
+
+    // does a bit of the resizing work, if there is any, on every insertion
+    // so that no single insertion has to move the whole table
+    private void migrateStep()
+    {
+        if (oldBuckets != null)
         {
-            buckets[hashIndex] = newNode;
-            size++;
+            migrate(MIGRATION_STEP);
         }
+    }
+
+    // adds a key and an associated value to the table
+    public void put(TKey key, TValue value)
+    {
+        migrateStep();
+
+        int hash = key.hashCode();
+        Node<TKey, TValue> existing = findNode(key, hash, true);
+
+        // if an element with the same key was found then just replace
+        // the value inside the element
+        if (existing != null)
+        {
+            existing.value = value;
+        }
+        // otherwise add a new node with the key and value
         else
         {
-            // first node of the inner list in the bucket
-            Node<TKey, TValue> current = buckets[hashIndex];
-
-            // before equality is checked, hashcode equality is checked
-            // this is because the hashcode is stored in the object natively
-            // and checking two int values is faster than checking the equality
-            // of two entire objects
-            while (current.next != null
-                    && current.key.hashCode() != key.hashCode()
-                    && !current.key.equals(key))
-            {
-                current = current.next;
-            }
+            addNode(key, hash, value);
+        }
+    }
 
-            // if an element with the same key was found then just replace
-            // the value inside the element
-            if (current.key.equals(key))
-            {
-                current.value = value;
-            }
-            // otherwise set the next node to be this new node, as `current`
-            // is the last one
-            else
-            {
-                current.next = newNode;
-                size++;
-            }
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // the bucket is only searched once. returns the new value
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        migrateStep();
+
+        int hash = key.hashCode();
+        Node<TKey, TValue> existing = findNode(key, hash, true);
+
+        if (existing == null)
+        {
+            addNode(key, hash, value);
+            return value;
+        }
+
+        existing.value = existing.value == null
+                ? value
+                : remapping.apply(existing.value, value);
+
+        return existing.value;
+    }
+
+    // associates the result of `remapping` on the key and its current value
+    // (null if there is none) with the key. the bucket is only searched
+    // once. returns the new value
+    public TValue compute(
+            TKey key,
+            BiFunction<? super TKey, ? super TValue, ? extends TValue> remapping)
+    {
+        migrateStep();
+
+        int hash = key.hashCode();
+        Node<TKey, TValue> existing = findNode(key, hash, true);
+
+        if (existing == null)
+        {
+            TValue value = remapping.apply(key, null);
+            addNode(key, hash, value);
+            return value;
+        }
+
+        existing.value = remapping.apply(key, existing.value);
+        return existing.value;
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it.
+    // the bucket is only searched once
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        migrateStep();
+
+        int hash = key.hashCode();
+        Node<TKey, TValue> existing = findNode(key, hash, true);
+
+        if (existing == null)
+        {
+            TValue value = mapping.apply(key);
+            addNode(key, hash, value);
+            return value;
+        }
+
+        if (existing.value == null)
+        {
+            existing.value = mapping.apply(key);
         }
+
+        return existing.value;
     }
 
     // returns the value associated with the key or throws a NoSuchElement
     // exception
     public TValue get(TKey key)
     {
-        // get the start of the inner list
-        int hashIndex = hashIndex(key);
-        Node<TKey, TValue> current = buckets[hashIndex];
+        Node<TKey, TValue> node = findNode(key, key.hashCode(), false);
 
-        // no element at hash index, so there is no stored key of that value
-        if (current == null)
+        // no element with that key could be found
+        if (node == null)
         {
             throw new NoSuchElementException(
                     String.format(
@@ -130,59 +505,23 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
             );
         }
 
-        // before equality is checked, hashcode equality is checked
-        // this is because the hashcode is stored in the object natively
-        // and checking two int values is faster than checking the equality
-        // of two entire objects
-        while (current.next != null
-                && !(current.key.hashCode() == key.hashCode()
-                    && current.key.equals(key)))
-        {
-            current = current.next;
-        }
+        return node.value;
+    }
 
-        // which of the cases above was failing is unknown, check for key
-        // equality, otherwise that element doesn't exist (current should
-        // be the last or the element with the equal key)
-        if (current.key.equals(key))
-        {
-            return current.value;
-        }
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        Node<TKey, TValue> node = findNode(key, key.hashCode(), false);
 
-        // no element with that key could be found
-        throw new NoSuchElementException(
-                String.format(
-                        "%s{%s}",
-                        getClass().getName(),
-                        key)
-        );
+        return node == null
+                ? defaultValue
+                : node.value;
     }
 
     public boolean contains(TKey key)
     {
-        // get the start of the inner list
-        int hashIndex = hashIndex(key);
-        Node<TKey, TValue> current = buckets[hashIndex];
-
-        // first element with that hashIndex is null so no such keys in bucket
-        if (current == null)
-        {
-            return false;
-        }
-
-        // before equality is checked, hashcode equality is checked
-        // this is because the hashcode is stored in the object natively
-        // and checking two int values is faster than checking the equality
-        // of two entire objects
-        while (current.next != null
-                && current.key.hashCode() != key.hashCode()
-                && !current.key.equals(key))
-        {
-            current = current.next;
-        }
-
-        // the last node or possible equal
-        return current.key.equals(key);
+        return findNode(key, key.hashCode(), false) != null;
     }
 
     // returns a string representation of the object
@@ -213,31 +552,54 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
         return sb.toString();
     }
 
-    // returns an iterator over the keys of the hash table
+    // returns an iterator over the keys of the hash table.
+    // the buckets that have not been migrated yet are iterated first, then
+    // the current bucket array
     @Override
     public Iterator<TKey> iterator()
     {
         return new Iterator<TKey>()
         {
-            // index is the index of the current bucket
+            // the bucket array being iterated and the index of its next
+            // bucket
+            Node<TKey, TValue>[] table =
+                    oldBuckets != null ? oldBuckets : buckets;
             int bucketIndex = 0;
 
-            // count is the number of values that have been returned
-            int count = 0;
+            // nextNode is the node whose key will be returned next
+            Node<TKey, TValue> nextNode = advance();
 
-            // currentNode is the currently selected node from a bucket
-            Node<TKey, TValue> currentNode;
+            // finds the first node of the next non empty bucket, moving on
+            // from the old bucket array to the current one when needed
+            private Node<TKey, TValue> advance()
+            {
+                while (true)
+                {
+                    while (bucketIndex < table.length)
+                    {
+                        Node<TKey, TValue> first = table[bucketIndex++];
+
+                        if (first != null)
+                        {
+                            return first;
+                        }
+                    }
+
+                    if (table == buckets)
+                    {
+                        return null;
+                    }
+
+                    table = buckets;
+                    bucketIndex = 0;
+                }
+            }
 
             // returns true if there is a next value, otherwise false
             @Override
             public boolean hasNext()
             {
-                // there can only be more keys if
-                //  1. there are more buckets
-                // and
-                //  2. the amount of returned keys is less than the amount of
-                //     keys in the table
-                return bucketIndex < buckets.length && count < size();
+                return nextNode != null;
             }
 
             // returns the next key if there is one, otherwise a
@@ -246,45 +608,20 @@ public class HashTable<TKey, TValue> implements Iterable<TKey>
             public TKey next()
             {
                 // if there are no more items, throw an exception
-                if (!hasNext())
+                if (nextNode == null)
                 {
                     throw new NoSuchElementException();
                 }
-                // if the currentNode is not null then there is an additional
-                // value in the bucket
-                else if (currentNode != null)
-                {
-                    Node<TKey, TValue> holder =
-                            currentNode;
 
-                    currentNode =
-                            currentNode.next;
+                Node<TKey, TValue> holder = nextNode;
 
-                    count++;
-                    return holder.key;
-                }
-                // if the next bucket is null, then iterate forwards
-                // until a non null bucket is found
-                // not reachable when there are no elements unless manually
-                // called under such circumstances
-                else if (buckets[bucketIndex] == null)
-                {
-                    bucketIndex++;
-                    return next();
-                }
-                // the next bucket wasn't null; increment the index, set the
-                // current node to the next one, and return the first node
-                // key.
-                else
-                {
-                    Node<TKey, TValue> holder =
-                            buckets[bucketIndex++];
+                // continue along the chain, or with the next bucket once
+                // the chain ends
+                nextNode = holder.next != null
+                        ? holder.next
+                        : advance();
 
-                    currentNode = holder.next;
-
-                    count++;
-                    return holder.key;
-                }
+                return holder.key;
             }
         };
     }
@@ -0,0 +1,21 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        HashTableMXBean is the management interface of `HashTable`, through
+        which JMX clients such as JConsole read the metrics of a table.
+    Usage:
+        Register a table with `HashTableMetrics.register`; the metrics show
+        up as the attribute "Metrics" of the bean.
+        Requires `HashTableMetrics` to work.
+ */
+
+public interface HashTableMXBean
+{
+    // returns a snapshot of the metrics of the table
+    HashTableMetrics getMetrics();
+
+    // starts counting the probes, collisions, and resizes from zero
+    void resetCounters();
+}
@@ -0,0 +1,325 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        HashTableMetrics is a snapshot of the state of a `HashTable`, to tell
+        a table slowed down by bad hashing from one slowed down by being too
+        small:
+            the load factor and the share of empty buckets, which are high
+            and low for a table that is too small,
+            the number of chains of every length and the longest chain,
+            which are long with many empty buckets for a bad hash,
+            the mean and most nodes probed per get and per put,
+            the number of insertions into a non empty bucket, and
+            the number of resizes.
+        The probes, collisions, and resizes are only counted while the system
+        property "hashtable.metrics" is true, see `HashTable`.
+        A snapshot maps to the open type of JMX, so a table registered with
+        `register` can be read by any JMX client.
+    Usage:
+        Get a snapshot from `HashTable.getMetrics`, or run the main method
+        with "-Dhashtable.metrics=true" and a number of keys to compare a
+        table of well spread keys with one of keys that all share a bucket,
+        read through JMX.
+        Requires `HashTable` and `HashTableMXBean` to work.
+ */
+
+import java.lang.management.ManagementFactory;
+import javax.management.ConstructorParameters;
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class HashTableMetrics
+{
+    private final boolean enabled;
+    private final int size;
+    private final int capacity;
+    private final long[] chainLengths;
+    private final long reads;
+    private final long readProbes;
+    private final long maxReadProbes;
+    private final long writes;
+    private final long writeProbes;
+    private final long maxWriteProbes;
+    private final long collisions;
+    private final long resizes;
+
+    // `chainLengths[k]` is the number of buckets with a chain of k nodes.
+    // the parameter names let JMX rebuild a snapshot from its open type
+    @ConstructorParameters({
+            "enabled", "size", "capacity", "chainLengths",
+            "reads", "readProbes", "maxReadProbes",
+            "writes", "writeProbes", "maxWriteProbes",
+            "collisions", "resizes" })
+    public HashTableMetrics(
+            boolean enabled,
+            int size,
+            int capacity,
+            long[] chainLengths,
+            long reads,
+            long readProbes,
+            long maxReadProbes,
+            long writes,
+            long writeProbes,
+            long maxWriteProbes,
+            long collisions,
+            long resizes)
+    {
+        this.enabled = enabled;
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengths = chainLengths.clone();
+        this.reads = reads;
+        this.readProbes = readProbes;
+        this.maxReadProbes = maxReadProbes;
+        this.writes = writes;
+        this.writeProbes = writeProbes;
+        this.maxWriteProbes = maxWriteProbes;
+        this.collisions = collisions;
+        this.resizes = resizes;
+    }
+
+    // returns true if the probes, collisions, and resizes were counted
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    // returns the number of buckets, not counting the buckets of a resize
+    // in progress
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public double getLoadFactor()
+    {
+        return (double)size / capacity;
+    }
+
+    // returns the number of buckets with a chain of k nodes at k
+    public long[] getChainLengths()
+    {
+        return chainLengths.clone();
+    }
+
+    // returns the number of buckets, including those of a resize in
+    // progress that are yet to be moved
+    private long buckets()
+    {
+        long buckets = 0;
+
+        for (long count : chainLengths)
+        {
+            buckets += count;
+        }
+
+        return buckets;
+    }
+
+    public double getEmptyBucketRatio()
+    {
+        long buckets = buckets();
+
+        return buckets == 0
+                ? 0
+                : (double)chainLengths[0] / buckets;
+    }
+
+    public int getMaxChainLength()
+    {
+        return chainLengths.length - 1;
+    }
+
+    // returns the mean length of the chains of the non empty buckets
+    public double getMeanChainLength()
+    {
+        long chains = buckets() - chainLengths[0];
+
+        return chains == 0
+                ? 0
+                : (double)size / chains;
+    }
+
+    // returns the number of gets, getOrDefaults, and contains
+    public long getReads()
+    {
+        return reads;
+    }
+
+    // returns the total number of nodes probed by reads
+    public long getReadProbes()
+    {
+        return readProbes;
+    }
+
+    public long getMaxReadProbes()
+    {
+        return maxReadProbes;
+    }
+
+    public double getMeanReadProbes()
+    {
+        return reads == 0
+                ? 0
+                : (double)readProbes / reads;
+    }
+
+    // returns the number of puts, merges, and computes
+    public long getWrites()
+    {
+        return writes;
+    }
+
+    // returns the total number of nodes probed by writes
+    public long getWriteProbes()
+    {
+        return writeProbes;
+    }
+
+    public long getMaxWriteProbes()
+    {
+        return maxWriteProbes;
+    }
+
+    public double getMeanWriteProbes()
+    {
+        return writes == 0
+                ? 0
+                : (double)writeProbes / writes;
+    }
+
+    // returns the number of keys added to a bucket that already had a chain
+    public long getCollisions()
+    {
+        return collisions;
+    }
+
+    // returns the number of times the bucket array started doubling
+    public long getResizes()
+    {
+        return resizes;
+    }
+
+    // registers the table in the platform MBean server under
+    // "AlgoData:type=HashTable,name={name}" and returns the name it was
+    // registered under. the server keeps the table until it is unregistered
+    public static ObjectName register(HashTable<?, ?> table, String name)
+            throws JMException
+    {
+        ObjectName objectName = new ObjectName(
+                "AlgoData:type=HashTable,name=" + ObjectName.quote(name));
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(table, objectName);
+
+        return objectName;
+    }
+
+    // removes a table registered by `register` from the MBean server
+    public static void unregister(ObjectName objectName) throws JMException
+    {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    // returns the chain lengths that occur as "{length: buckets, ...}"
+    private String chainLengthsString()
+    {
+        StringBuilder sb = new StringBuilder("{");
+
+        for (int length = 0; length < chainLengths.length; length++)
+        {
+            if (chainLengths[length] == 0)
+            {
+                continue;
+            }
+
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+
+            sb.append(length).append(": ").append(chainLengths[length]);
+        }
+
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format(
+                "{enabled: %b, size: %d, capacity: %d, load factor: %.2f, "
+                        + "empty buckets: %.1f%%, longest chain: %d, "
+                        + "chain lengths: %s, reads: %d (%.2f probes, max %d), "
+                        + "writes: %d (%.2f probes, max %d), collisions: %d, "
+                        + "resizes: %d}",
+                enabled,
+                size,
+                capacity,
+                getLoadFactor(),
+                100 * getEmptyBucketRatio(),
+                getMaxChainLength(),
+                chainLengthsString(),
+                reads,
+                getMeanReadProbes(),
+                maxReadProbes,
+                writes,
+                getMeanWriteProbes(),
+                maxWriteProbes,
+                collisions,
+                resizes);
+    }
+
+    // the number of buckets of the fixed size tables of the test
+    private static final int TEST_CAPACITY = 1 << 10;
+
+    // test method, fills a fixed size table with n keys spread over the
+    // buckets and another with n keys that all fall in the first bucket,
+    // looks every key up, and prints the metrics of both as read through
+    // JMX
+    public static void main(String[] args) throws JMException
+    {
+        int n = Integer.parseInt(args[0]);
+
+        // an infinite load factor keeps the tables from growing
+        HashTable<Integer, Integer> spread =
+                new HashTable<>(TEST_CAPACITY, Double.POSITIVE_INFINITY);
+        HashTable<Integer, Integer> clustered =
+                new HashTable<>(TEST_CAPACITY, Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < n; i++)
+        {
+            spread.put(i, i);
+
+            // the hash of an Integer is its value, so every multiple of the
+            // capacity goes into bucket 0
+            clustered.put(i * TEST_CAPACITY, i);
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            spread.get(i);
+            clustered.get(i * TEST_CAPACITY);
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName spreadName = register(spread, "spread");
+        ObjectName clusteredName = register(clustered, "clustered");
+
+        for (ObjectName name : new ObjectName[] { spreadName, clusteredName })
+        {
+            HashTableMXBean bean = JMX.newMXBeanProxy(server, name, HashTableMXBean.class);
+
+            System.out.printf("%s: %s\n", name, bean.getMetrics());
+            unregister(name);
+        }
+    }
+}
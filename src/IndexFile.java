@@ -0,0 +1,405 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        IndexFile writes the index table of a text file to a binary file and
+        reads it back through a memory mapping, so that an indexed text can
+        be queried without indexing it again or loading the index onto the
+        heap.
+        Layout, all numbers big endian:
+            header:     magic, version, source size, source modification
+                        time, source checksum, slot count, word count
+            slots:      an open addressing table (linear probing) of
+                        `slot count` slots, each holding the hash of a word,
+                        the length of the word in UTF-8 bytes, and the
+                        offset of its entry; an offset of 0 is an empty slot
+            entries:    for each word, its UTF-8 bytes, the number of
+                        indices, the last index, the number of encoded
+                        bytes, and the indices encoded as by `PostingList`
+        The source size, modification time, and checksum tell whether the
+        index still belongs to the text. The checksum is a CRC32C of up to
+        16 evenly spread 64KB blocks of the text, always including the first
+        and last block, so checking it costs a few reads no matter the size
+        of the text. They are read with `stamp` before the text is indexed,
+        so a text changed while it is being indexed gets an index that is
+        already stale rather than one marked fresh for the new content.
+        Index files are limited to 2GB, the most a single mapping can hold.
+    Usage:
+        Import the class to save and open indices or run the main method
+        with a text file to index it if its index file is missing or stale.
+        Requires `PostingList`, `SymbolTable`, and `TextUtility` to work.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+public class IndexFile
+{
+    private static final int MAGIC = 0x49445857;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 40;
+    private static final int SLOT_BYTES = 16;
+
+    // the size and number of the blocks of the text that are checksummed
+    private static final int CHECKSUM_BLOCK_BYTES = 1 << 16;
+    private static final int CHECKSUM_BLOCKS = 16;
+
+    // the size, modification time, and checksum of a text at one moment
+    public static class Stamp
+    {
+        public final long length;
+        public final long lastModified;
+        public final long checksum;
+
+        public Stamp(long length, long lastModified, long checksum)
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int wordCount;
+
+    private IndexFile(MappedByteBuffer buffer)
+    {
+        this.buffer = buffer;
+        this.slotCount = buffer.getInt(32);
+        this.wordCount = buffer.getInt(36);
+    }
+
+    // returns the number of words in the index
+    public int size()
+    {
+        return wordCount;
+    }
+
+    // returns the file the index of the text is saved in
+    public static File indexFileFor(File text)
+    {
+        return new File(text.getPath() + ".idx");
+    }
+
+    // returns the hash of the word with the high bits mixed into the low
+    // bits, as only the low bits are used to pick a slot
+    private static int hash(String word)
+    {
+        int h = word.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // returns the checksum of up to `CHECKSUM_BLOCKS` blocks spread evenly
+    // over the text
+    private static long checksum(File text) throws IOException
+    {
+        CRC32C crc = new CRC32C();
+        ByteBuffer block = ByteBuffer.allocate(CHECKSUM_BLOCK_BYTES);
+
+        try (FileChannel channel = FileChannel.open(
+                text.toPath(),
+                StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            long lastBlock = Math.max(0, size - CHECKSUM_BLOCK_BYTES);
+
+            for (int i = 0; i < CHECKSUM_BLOCKS; i++)
+            {
+                // the first block is at the start and the last at the end
+                long position = lastBlock * i / (CHECKSUM_BLOCKS - 1);
+
+                block.clear();
+                while (block.hasRemaining()
+                        && channel.read(block, position + block.position()) > 0);
+
+                block.flip();
+                crc.update(block);
+
+                // small texts fit in a single block
+                if (lastBlock == 0)
+                {
+                    break;
+                }
+            }
+        }
+
+        return crc.getValue();
+    }
+
+    // returns the stamp of the text as it is now, to be taken before the
+    // text is indexed
+    public static Stamp stamp(File text) throws IOException
+    {
+        return new Stamp(text.length(), text.lastModified(), checksum(text));
+    }
+
+    // saves the index of the text stamped `source` to `indexFile`. the file
+    // is written next to its destination and moved into place once
+    // complete, so a crash never leaves a half written index behind, and the
+    // unfinished file is deleted if writing fails
+    public static void write(
+            SymbolTable<String, PostingList> indexes,
+            Stamp source,
+            File indexFile) throws IOException
+    {
+        int wordCount = indexes.size();
+
+        // at most half of the slots are used so probe sequences stay short
+        int slotCount = 2;
+        while (slotCount < wordCount * 2)
+        {
+            slotCount *= 2;
+        }
+
+        // lay out the entries first so that the slots can point at them
+        String[] words = new String[wordCount];
+        byte[][] wordBytes = new byte[wordCount][];
+        long[] offsets = new long[wordCount];
+
+        long offset = HEADER_BYTES + (long)slotCount * SLOT_BYTES;
+        int count = 0;
+        for (String word : indexes)
+        {
+            words[count] = word;
+            wordBytes[count] = word.getBytes(StandardCharsets.UTF_8);
+            offsets[count] = offset;
+
+            offset += wordBytes[count].length
+                    + 4 + 8 + 4
+                    + indexes.get(word).byteSize();
+            count++;
+        }
+
+        if (offset > Integer.MAX_VALUE)
+        {
+            throw new IOException("index " + indexFile + " is too large to map");
+        }
+
+        // place every word in the slot table
+        int[] slotWords = new int[slotCount];
+        Arrays.fill(slotWords, -1);
+        for (int i = 0; i < wordCount; i++)
+        {
+            int slot = hash(words[i]) & (slotCount - 1);
+            while (slotWords[slot] >= 0)
+            {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+
+            slotWords[slot] = i;
+        }
+
+        File temporary = new File(indexFile.getPath() + ".tmp");
+
+        try
+        {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(
+                            new FileOutputStream(temporary),
+                            1 << 16)))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(source.length);
+                out.writeLong(source.lastModified);
+                out.writeLong(source.checksum);
+                out.writeInt(slotCount);
+                out.writeInt(wordCount);
+
+                for (int slot = 0; slot < slotCount; slot++)
+                {
+                    int i = slotWords[slot];
+
+                    if (i < 0)
+                    {
+                        out.writeInt(0);
+                        out.writeInt(0);
+                        out.writeLong(0);
+                    }
+                    else
+                    {
+                        out.writeInt(hash(words[i]));
+                        out.writeInt(wordBytes[i].length);
+                        out.writeLong(offsets[i]);
+                    }
+                }
+
+                for (int i = 0; i < wordCount; i++)
+                {
+                    PostingList list = indexes.get(words[i]);
+
+                    out.write(wordBytes[i]);
+                    out.writeInt(list.size());
+                    out.writeLong(list.last());
+                    out.writeInt(list.byteSize());
+                    list.writeEncoded(out);
+                }
+            }
+
+            moveIntoPlace(temporary, indexFile);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // don't leave the unfinished file behind
+            temporary.delete();
+            throw e;
+        }
+    }
+
+    // moves the written file over the index file, atomically if the file
+    // system can, so that a reader never sees a half replaced index
+    private static void moveIntoPlace(File file, File indexFile) throws IOException
+    {
+        try
+        {
+            Files.move(
+                    file.toPath(),
+                    indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(
+                    file.toPath(),
+                    indexFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // opens the index file of the text, or returns null if there is none,
+    // it is not an index file of this version, or it is stale
+    public static IndexFile open(File text, File indexFile) throws IOException
+    {
+        if (!indexFile.isFile() || indexFile.length() < HEADER_BYTES)
+        {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(
+                indexFile.toPath(),
+                StandardOpenOption.READ))
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    0,
+                    channel.size());
+
+            boolean isIndex = buffer.getInt(0) == MAGIC
+                    && buffer.getInt(4) == VERSION;
+
+            // the size and modification time are checked before the
+            // checksum, as they are much cheaper to get
+            boolean isFresh = isIndex
+                    && buffer.getLong(8) == text.length()
+                    && buffer.getLong(16) == text.lastModified()
+                    && buffer.getLong(24) == checksum(text);
+
+            return isFresh
+                    ? new IndexFile(buffer)
+                    : null;
+        }
+    }
+
+    // returns true if the UTF-8 bytes of the entry at `offset` are the same
+    // as `word`
+    private boolean wordEquals(long offset, byte[] word)
+    {
+        for (int i = 0; i < word.length; i++)
+        {
+            if (buffer.get((int)offset + i) != word[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // returns the indices of the word, or null if the word isn't in the
+    // index
+    public PostingList get(String word)
+    {
+        int hash = hash(word);
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+
+        int slot = hash & (slotCount - 1);
+        while (true)
+        {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long offset = buffer.getLong(position + 8);
+
+            // an empty slot ends the probe sequence
+            if (offset == 0)
+            {
+                return null;
+            }
+
+            // the hash and length are compared before the bytes of the word
+            if (buffer.getInt(position) == hash
+                    && buffer.getInt(position + 4) == bytes.length
+                    && wordEquals(offset, bytes))
+            {
+                int entry = (int)offset + bytes.length;
+
+                return PostingList.readEncoded(
+                        buffer,
+                        entry + 16,
+                        buffer.getInt(entry + 12),
+                        buffer.getInt(entry),
+                        buffer.getLong(entry + 4));
+            }
+
+            slot = (slot + 1) & (slotCount - 1);
+        }
+    }
+
+    // test method, makes sure the index file of the given text is up to date
+    public static void main(String[] args) throws IOException
+    {
+        File text = new File(args[0]);
+
+        File indexFile = indexFileFor(text);
+
+        // index the text again only if the index file is missing or stale
+        long start = System.nanoTime();
+        IndexFile index = open(text, indexFile);
+
+        if (index == null)
+        {
+            Stamp source = stamp(text);
+            write(TextUtility.createIndexTableParallel(text), source, indexFile);
+            index = open(text, indexFile);
+        }
+
+        long time = System.nanoTime() - start;
+
+        System.out.printf(
+                "%d words in %s, opened in %.4f seconds\n",
+                index.size(),
+                indexFileFor(text),
+                time / 1e9);
+    }
+}
@@ -1,7 +1,7 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/23
-    Updated: 2020/09/28
+    Updated: 2026/10/18
     Purpose:
         IndexWords indexes all the words in a file and lets the user ask for
         the index of a certain word.
@@ -11,29 +11,66 @@
         newline characters.
         The user may then write a word to find the character indices of, in any
         letter casing.
-        Requires `HashTable` and `TextUtility` to work.
+        The index is saved next to the file (see `IndexFile`) and used
+        instead of indexing the file again as long as the file is unchanged.
+        If the index can't be saved a warning is printed and the words are
+        looked up in the index in memory instead.
+        Requires `IndexFile`, `PostingList`, `SymbolTable`, and `TextUtility`
+        to work.
  */
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.List;
+import java.io.IOException;
 import java.util.Scanner;
+import java.util.function.Function;
 
 public class IndexedWords
 {
-    public static void main(String[] args) throws FileNotFoundException
+    public static void main(String[] args) throws IOException
     {
         // index the file before taking input
         File theTextFile = new File(args[0]);
-        Scanner theTextScanner = new Scanner(theTextFile);
 
-        // index file
-        System.out.print("Indexing...");
+        // use the saved index of the file if it is up to date
+        File theIndexFile = IndexFile.indexFileFor(theTextFile);
+        IndexFile savedIndexes = IndexFile.open(theTextFile, theIndexFile);
 
-        HashTable<String, List<Long>> indexes =
-                TextUtility.createIndexTable(theTextScanner);
+        Function<String, PostingList> indexes;
 
-        System.out.println(" Done");
+        if (savedIndexes != null)
+        {
+            indexes = savedIndexes::get;
+        }
+        // otherwise index file, split up over all available cores, and save
+        // the index for the next time
+        else
+        {
+            System.out.print("Indexing...");
+
+            // stamped before indexing, so that changes made to the file
+            // while it is indexed make the saved index stale
+            IndexFile.Stamp source = IndexFile.stamp(theTextFile);
+            SymbolTable<String, PostingList> indexTable =
+                    TextUtility.createIndexTableParallel(theTextFile);
+
+            indexes = word -> indexTable.getOrDefault(word, null);
+
+            System.out.println(" Done");
+
+            // the index in memory works just as well, it only has to be
+            // made again the next time
+            try
+            {
+                IndexFile.write(indexTable, source, theIndexFile);
+            }
+            catch (IOException e)
+            {
+                System.err.printf(
+                        "Warning: could not save the index to %s: %s\n",
+                        theIndexFile,
+                        e.getMessage());
+            }
+        }
 
         // take input
         Scanner in = new Scanner(System.in);
@@ -53,12 +90,14 @@ public class IndexedWords
             // and looked at
             String lowercaseWord = input.toLowerCase();
 
+            PostingList wordIndexes = indexes.apply(lowercaseWord);
+
             // word existed, print the indexes
-            if (indexes.contains(lowercaseWord))
+            if (wordIndexes != null)
             {
                 System.out.printf(
                         "@ %s\n",
-                        indexes.get(lowercaseWord)
+                        wordIndexes
                 );
             }
             // word did NOT exist, tell user about it
@@ -0,0 +1,377 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        LatencyBenchmark times every single get, put, and contains of a mixed
+        workload on the symbol tables of `SymbolTables` and reports the
+        percentiles of their latencies, so that the occasional slow
+        operation, on a long chain of `HashTable` or a deep path of
+        `BinarySearchTree`, shows instead of disappearing in a mean.
+        The table starts with half of the keys. The operations are drawn at
+        random, reads as often as asked for and split evenly between gets
+        and contains, on keys following the distribution of
+        `SymbolTableBenchmark` over all of the keys, so about half of the
+        reads miss at first and the puts both add and replace keys.
+        Each operation is timed on its own with `System.nanoTime` and counted
+        in a `LatencyHistogram` of its kind. The latencies include the time
+        of reading the clock, which is measured and printed first so that it
+        can be told apart; operations faster than it can't be told apart at
+        all.
+        Every table is run in a forked JVM of its own after a warm-up of the
+        same operations on another table, so that the JIT has compiled the
+        code of only that table.
+    Usage:
+        Run the main method with any of the following options, defaults in
+        parentheses:
+            --backends      hash,tree,array     (hash,tree,array; or balanced,
+                                                 concurrent, pooled)
+            --size          number of keys      (100000)
+            --operations    operations to time  (1000000)
+            --reads         share of gets and contains (0.9)
+            --distribution  uniform, zipf, or sorted (uniform)
+            --warm-up       warm-up runs        (2)
+            --forks         (1), 0 runs everything in this JVM
+        The latencies are printed in nanoseconds as CSV, a line per table
+        and operation of every fork.
+        Requires `LatencyHistogram`, `SymbolTable`, `SymbolTableBenchmark`,
+        and `SymbolTables` to work.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class LatencyBenchmark
+{
+    // the operations that are timed
+    private enum Operation
+    {
+        GET,
+        PUT,
+        CONTAINS
+    }
+
+    private static final long SEED = 0x5EED;
+
+    // the prefix of the lines forks print their results on
+    private static final String RESULT_PREFIX = "#result ";
+
+    private static final String CSV_HEADER =
+            "backend,operation,count,mean_ns,p50_ns,p99_ns,p99_9_ns,max_ns";
+
+    // written with the sum of everything read from the tables, so that the
+    // JIT can't drop the reads
+    private static volatile long sink;
+
+    // the keys and operations of a run, the same in every fork
+    private static class Workload
+    {
+        public final String[] keys;
+        public final Operation[] operations;
+
+        // the key of every operation
+        public final String[] operationKeys;
+
+        public Workload(
+                int size,
+                int operationCount,
+                double reads,
+                SymbolTableBenchmark.Distribution distribution)
+        {
+            Random random = new Random(SEED);
+
+            keys = SymbolTableBenchmark.randomWords(size, random);
+            if (distribution == SymbolTableBenchmark.Distribution.SORTED)
+            {
+                Arrays.sort(keys);
+            }
+
+            int[] order = SymbolTableBenchmark.order(
+                    distribution,
+                    operationCount,
+                    size,
+                    random);
+
+            operations = new Operation[operationCount];
+            operationKeys = new String[operationCount];
+            for (int i = 0; i < operationCount; i++)
+            {
+                operations[i] = random.nextDouble() >= reads
+                        ? Operation.PUT
+                        : random.nextBoolean()
+                                ? Operation.GET
+                                : Operation.CONTAINS;
+                operationKeys[i] = keys[order[i]];
+            }
+        }
+
+        // returns a new table of the backend holding the first half of the
+        // keys
+        public SymbolTable<String, Integer> table(SymbolTables.Backend backend)
+        {
+            SymbolTable<String, Integer> table =
+                    SymbolTables.create(backend, keys.length);
+
+            for (int i = 0; i < keys.length / 2; i++)
+            {
+                table.put(keys[i], i);
+            }
+
+            return table;
+        }
+    }
+
+    // runs the operations on the table, counting the latency of each in the
+    // histogram of its operation unless `histograms` is null
+    private static void run(
+            Workload workload,
+            SymbolTable<String, Integer> table,
+            LatencyHistogram[] histograms)
+    {
+        long sum = 0;
+
+        for (int i = 0; i < workload.operations.length; i++)
+        {
+            Operation operation = workload.operations[i];
+            String key = workload.operationKeys[i];
+
+            long start = System.nanoTime();
+            switch (operation)
+            {
+                case GET:
+                    sum += table.getOrDefault(key, -1);
+                    break;
+                case CONTAINS:
+                    sum += table.contains(key) ? 1 : 0;
+                    break;
+                case PUT:
+                default:
+                    table.put(key, i);
+                    break;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (histograms != null)
+            {
+                histograms[operation.ordinal()].record(latency);
+            }
+        }
+
+        sink += sum;
+    }
+
+    // returns a histogram of the time between two readings of the clock
+    private static LatencyHistogram clockOverhead(int count)
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 0; i < count; i++)
+        {
+            long start = System.nanoTime();
+            histogram.record(System.nanoTime() - start);
+        }
+
+        return histogram;
+    }
+
+    // returns the CSV line of a histogram
+    private static String toCsv(String backend, String operation, LatencyHistogram histogram)
+    {
+        return String.format(
+                Locale.ROOT,
+                "%s,%s,%d,%.1f,%d,%d,%d,%d",
+                backend,
+                operation,
+                histogram.count(),
+                histogram.mean(),
+                histogram.valueAtPercentile(50),
+                histogram.valueAtPercentile(99),
+                histogram.valueAtPercentile(99.9),
+                histogram.max());
+    }
+
+    // warms up and times the operations on the backend in this JVM and
+    // returns the CSV lines of the latencies, the clock overhead first
+    private static List<String> measure(
+            SymbolTables.Backend backend,
+            Workload workload,
+            int warmUp)
+    {
+        for (int i = 0; i < warmUp; i++)
+        {
+            run(workload, workload.table(backend), null);
+        }
+
+        LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+
+        run(workload, workload.table(backend), histograms);
+
+        String name = backend.name().toLowerCase();
+        List<String> lines = new ArrayList<>();
+        lines.add(toCsv(name, "clock", clockOverhead(workload.operations.length)));
+        for (Operation operation : Operation.values())
+        {
+            lines.add(toCsv(
+                    name,
+                    operation.name().toLowerCase(),
+                    histograms[operation.ordinal()]));
+        }
+
+        return lines;
+    }
+
+    // runs `measure` in a new JVM with the same options and returns its
+    // lines
+    private static List<String> fork(SymbolTables.Backend backend, String[] options)
+            throws IOException, InterruptedException
+    {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home")
+                + File.separator + "bin"
+                + File.separator + "java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LatencyBenchmark.class.getName());
+        command.add("--fork");
+        command.add(backend.name());
+        command.addAll(List.of(options));
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(
+                        process.getInputStream(),
+                        StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = out.readLine()) != null)
+            {
+                if (line.startsWith(RESULT_PREFIX))
+                {
+                    lines.add(line.substring(RESULT_PREFIX.length()));
+                }
+            }
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0)
+        {
+            throw new IllegalStateException(
+                    String.format(
+                            "the fork of %s failed with exit code %d",
+                            backend,
+                            exitCode));
+        }
+
+        return lines;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        // a fork is given its backend before the options
+        boolean isFork = args.length > 1 && args[0].equals("--fork");
+        String[] options = isFork
+                ? Arrays.copyOfRange(args, 2, args.length)
+                : args;
+
+        String backends = "hash,tree,array";
+        int size = 100_000;
+        int operationCount = 1_000_000;
+        double reads = 0.9;
+        SymbolTableBenchmark.Distribution distribution =
+                SymbolTableBenchmark.Distribution.UNIFORM;
+        int warmUp = 2;
+        int forks = 1;
+
+        for (int i = 0; i + 1 < options.length; i += 2)
+        {
+            String value = options[i + 1];
+
+            switch (options[i])
+            {
+                case "--backends":
+                    backends = value;
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--operations":
+                    operationCount = Integer.parseInt(value);
+                    break;
+                case "--reads":
+                    reads = Double.parseDouble(value);
+                    break;
+                case "--distribution":
+                    distribution = SymbolTableBenchmark.Distribution.valueOf(
+                            value.toUpperCase());
+                    break;
+                case "--warm-up":
+                    warmUp = Integer.parseInt(value);
+                    break;
+                case "--forks":
+                    forks = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            "unknown option " + options[i]);
+            }
+        }
+
+        if (isFork)
+        {
+            Workload workload = new Workload(size, operationCount, reads, distribution);
+
+            for (String line : measure(SymbolTables.Backend.valueOf(args[1]), workload, warmUp))
+            {
+                System.out.println(RESULT_PREFIX + line);
+            }
+            return;
+        }
+
+        System.out.println(CSV_HEADER);
+
+        Workload workload = forks == 0
+                ? new Workload(size, operationCount, reads, distribution)
+                : null;
+
+        for (String name : backends.split(","))
+        {
+            SymbolTables.Backend backend =
+                    SymbolTables.Backend.valueOf(name.trim().toUpperCase());
+
+            if (forks == 0)
+            {
+                for (String line : measure(backend, workload, warmUp))
+                {
+                    System.out.println(line);
+                }
+            }
+
+            // every fork prints the lines of its own run
+            for (int i = 0; i < forks; i++)
+            {
+                for (String line : fork(backend, options))
+                {
+                    System.out.println(line);
+                }
+            }
+        }
+    }
+}
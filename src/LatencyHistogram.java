@@ -0,0 +1,222 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        LatencyHistogram counts latencies, or any other non-negative longs,
+        in logarithmic buckets so that any percentile of millions of them is
+        found in a fixed amount of memory, like HdrHistogram does.
+        Values below `SUB_BUCKET_COUNT` have a bucket each. Every power of
+        two above that is split into `SUB_BUCKET_COUNT / 2` buckets of equal
+        width, so a value is never off by more than 1 / 64 of itself, about
+        1.6%, and the whole range of a long fits in 3 712 buckets. Recording
+        a value is a count of leading zeros, a shift, and an increment.
+        The minimum, the maximum, and the sum are kept exactly.
+    Usage:
+        Create a histogram, `record` values, and read `valueAtPercentile`,
+        or run the main method with a number of millions of values to
+        compare the percentiles of random values with the exact ones.
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class LatencyHistogram
+{
+    // the number of buckets below the first split power of two; half of
+    // them is the number of buckets every power of two above is split into
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    // the buckets below SUB_BUCKET_COUNT, and those of the powers of two
+    // from 2^SUB_BUCKET_BITS up to 2^62
+    private static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public LatencyHistogram() {}
+
+    // returns the bucket of the value
+    private static int bucketOf(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int)value;
+        }
+
+        // the shift leaving the SUB_BUCKET_BITS highest bits of the value,
+        // the highest of which is always set
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int top = (int)(value >>> shift);
+
+        return SUB_BUCKET_COUNT
+                + (shift - 1) * SUB_BUCKET_HALF
+                + (top - SUB_BUCKET_HALF);
+    }
+
+    // returns the highest value that goes into the bucket
+    private static long highestValueOf(int bucket)
+    {
+        if (bucket < SUB_BUCKET_COUNT)
+        {
+            return bucket;
+        }
+
+        int shift = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long top = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+
+        return ((top + 1) << shift) - 1;
+    }
+
+    // counts the value, which must not be negative
+    public void record(long value)
+    {
+        if (value < 0)
+        {
+            throw new IllegalArgumentException(
+                    "negative value " + value);
+        }
+
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    // adds the values of the other histogram to this one
+    public void add(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // forgets all values
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count()
+    {
+        return count;
+    }
+
+    // returns the smallest value, or 0 if there are none
+    public long min()
+    {
+        return count == 0
+                ? 0
+                : min;
+    }
+
+    public long max()
+    {
+        return max;
+    }
+
+    public double mean()
+    {
+        return count == 0
+                ? 0
+                : (double)sum / count;
+    }
+
+    // returns the value that `percentile` percent of the values are at or
+    // below, as the highest value of its bucket but never above the
+    // maximum. returns 0 if there are no values
+    public long valueAtPercentile(double percentile)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        // the rank of the value, at least the first one
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += counts[i];
+
+            if (seen >= rank)
+            {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    // returns the count and the usual percentiles
+    @Override
+    public String toString()
+    {
+        return String.format(
+                "{count: %d, mean: %.1f, p50: %d, p99: %d, p99.9: %d, max: %d}",
+                count,
+                mean(),
+                valueAtPercentile(50),
+                valueAtPercentile(99),
+                valueAtPercentile(99.9),
+                max);
+    }
+
+    // test method, records n million values spread over several orders of
+    // magnitude and prints the percentiles of the histogram next to the
+    // exact ones
+    public static void main(String[] args)
+    {
+        int n = (int)(Double.parseDouble(args[0]) * 1_000_000);
+
+        Random random = new Random(0);
+        long[] values = new long[n];
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 0; i < n; i++)
+        {
+            // exponentially distributed around 100, one in a hundred
+            // around 100 000 for a long tail
+            double mean = random.nextInt(100) == 0
+                    ? 100_000
+                    : 100;
+            values[i] = (long)(-mean * Math.log(1 - random.nextDouble()));
+            histogram.record(values[i]);
+        }
+
+        Arrays.sort(values);
+
+        System.out.println("Percentile, Histogram, Exact");
+        for (double percentile : new double[] { 50, 90, 99, 99.9, 99.99, 100 })
+        {
+            long exact = values[(int)Math.max(0, Math.ceil(percentile / 100 * n) - 1)];
+
+            System.out.printf(
+                    "%s, %d, %d\n",
+                    percentile,
+                    histogram.valueAtPercentile(percentile),
+                    exact);
+        }
+
+        System.out.println(histogram);
+    }
+}
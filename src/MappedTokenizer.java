@@ -0,0 +1,304 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        MappedTokenizer splits UTF-8 text into lowercase words by scanning
+        the bytes of a memory mapped file directly.
+        Words are handed out as a reused CharSequence that is only valid
+        until the next word, so no String is created per word; the receiver
+        decides when a word is worth keeping as a String, for example when
+        it is seen for the first time.
+        Words are separated by spaces and line separators ("\n", "\r\n",
+        and "\r"). The index of a word is the 1-based character index of its
+        first character where every line separator counts as one character,
+        the same as `TextUtility.createIndexTable`.
+        ASCII words are lowercased byte by byte. Words with other characters
+        are decoded and lowercased with `String.toLowerCase()` instead.
+    Usage:
+        Import the class to tokenize files or run the main method with a
+        file to count its words and distinct words.
+        Requires `FrequencyTable` to work.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+public class MappedTokenizer
+{
+    // receives every word of the text in order
+    public interface WordHandler
+    {
+        // `word` is lowercase and only valid for the duration of the call,
+        // `index` is the character index of its first character
+        void word(CharSequence word, long index);
+    }
+
+    // the reused view over the current word
+    private static class Word implements CharSequence
+    {
+        private char[] chars = new char[32];
+        private int length;
+
+        // makes room for at least `capacity` characters
+        private void ensureCapacity(int capacity)
+        {
+            if (capacity > chars.length)
+            {
+                char[] newChars = new char[Math.max(capacity, chars.length * 2)];
+                System.arraycopy(chars, 0, newChars, 0, length);
+                chars = newChars;
+            }
+        }
+
+        @Override
+        public int length()
+        {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            if (index < 0 || index >= length)
+            {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString()
+        {
+            return new String(chars, 0, length);
+        }
+    }
+
+    // files are mapped in pieces of at most this many bytes, as one mapping
+    // can be at most 2GB
+    private static final long MAX_MAPPING_BYTES = 1L << 30;
+
+    // ASCII letters can only be lowercased byte by byte if the default
+    // locale lowercases them the same way as the root locale does
+    private static final boolean ASCII_LOWERCASE = !(
+            Locale.getDefault().getLanguage().equals("tr")
+            || Locale.getDefault().getLanguage().equals("az"));
+
+    private final ByteBuffer bytes;
+    private final Word word = new Word();
+
+    // tokenizes the bytes from the position to the limit of the buffer
+    public MappedTokenizer(ByteBuffer bytes)
+    {
+        this.bytes = bytes;
+    }
+
+    // returns true if the byte separates two words
+    private static boolean isSeparator(byte b)
+    {
+        return b == ' ' || b == '\n' || b == '\r';
+    }
+
+    // hands every word of the buffer to `handler`, where the first character
+    // of the buffer has the index `firstIndex`. returns the number of
+    // characters in the buffer
+    public long tokenize(long firstIndex, WordHandler handler)
+    {
+        int limit = bytes.limit();
+        long index = firstIndex;
+
+        for (int i = bytes.position(); i < limit;)
+        {
+            byte b = bytes.get(i);
+
+            // spaces and newlines are one character each
+            if (b == ' ' || b == '\n')
+            {
+                index++;
+                i++;
+                continue;
+            }
+
+            // so is "\r\n"
+            if (b == '\r')
+            {
+                index++;
+                i++;
+
+                if (i < limit && bytes.get(i) == '\n')
+                {
+                    i++;
+                }
+
+                continue;
+            }
+
+            // save the starting position of the word, then lowercase bytes
+            // into the word until a separator or the end is found. bytes
+            // with the high bit set are part of a multibyte character,
+            // which the byte by byte lowercasing cannot handle
+            int start = i;
+            boolean ascii = ASCII_LOWERCASE;
+            word.length = 0;
+
+            for (; i < limit && !isSeparator(b = bytes.get(i)); i++)
+            {
+                if (b < 0)
+                {
+                    ascii = false;
+                }
+                else if (ascii)
+                {
+                    word.ensureCapacity(word.length + 1);
+                    word.chars[word.length++] = b >= 'A' && b <= 'Z'
+                            ? (char)(b + ('a' - 'A'))
+                            : (char)b;
+                }
+            }
+
+            if (ascii)
+            {
+                handler.word(word, index);
+                index += word.length;
+                continue;
+            }
+
+            // decode the word and lowercase it the same way as
+            // `String.toLowerCase()`. the index moves by the length of the
+            // word as it is in the text, which lowercasing may change
+            byte[] wordBytes = new byte[i - start];
+            bytes.get(start, wordBytes);
+
+            String text = new String(wordBytes, StandardCharsets.UTF_8);
+            String lowercase = text.toLowerCase();
+
+            word.length = 0;
+            word.ensureCapacity(lowercase.length());
+            lowercase.getChars(0, lowercase.length(), word.chars, 0);
+            word.length = lowercase.length();
+
+            handler.word(word, index);
+            index += text.length();
+        }
+
+        return index - firstIndex;
+    }
+
+    // returns the position of the first byte after `position` that comes
+    // right after a space or a newline, or the end of the file. splitting a
+    // file there never splits a word, a multibyte character, or a "\r\n"
+    public static long alignToWhitespace(FileChannel channel, long position)
+            throws IOException
+    {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        while (position < size)
+        {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0)
+            {
+                break;
+            }
+
+            for (int i = 0; i < read; i++)
+            {
+                byte b = buffer.get(i);
+
+                if (b == ' ' || b == '\n')
+                {
+                    return position + i + 1;
+                }
+            }
+
+            position += read;
+        }
+
+        return size;
+    }
+
+    // maps the bytes [start, end) of the channel and hands every word in
+    // them to `handler`, where the first character has the index
+    // `firstIndex`. returns the number of characters in the bytes
+    public static long tokenize(
+            FileChannel channel,
+            long start,
+            long end,
+            long firstIndex,
+            WordHandler handler) throws IOException
+    {
+        long index = firstIndex;
+
+        // map and tokenize pieces small enough for one mapping, each ending
+        // right after a separator so no word is split between two pieces
+        while (start < end)
+        {
+            long pieceEnd = end - start <= MAX_MAPPING_BYTES
+                    ? end
+                    : Math.min(
+                            end,
+                            alignToWhitespace(channel, start + MAX_MAPPING_BYTES));
+
+            MappedByteBuffer mapping = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    start,
+                    pieceEnd - start);
+
+            index += new MappedTokenizer(mapping).tokenize(index, handler);
+            start = pieceEnd;
+        }
+
+        return index - firstIndex;
+    }
+
+    // hands every word of the file to `handler`. returns the number of
+    // characters in the file
+    public static long tokenize(File file, WordHandler handler)
+            throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(),
+                StandardOpenOption.READ))
+        {
+            return tokenize(channel, 0, channel.size(), 1, handler);
+        }
+    }
+
+    // test method, counts the words and distinct words of a file
+    public static void main(String[] args) throws IOException
+    {
+        FrequencyTable frequencies = new FrequencyTable();
+        long[] wordCount = new long[1];
+
+        long start = System.nanoTime();
+
+        long characters = tokenize(new File(args[0]), (word, index) ->
+        {
+            frequencies.increment(word);
+            wordCount[0]++;
+        });
+
+        long time = System.nanoTime() - start;
+
+        System.out.printf(
+                "%d characters, %d words, %d distinct words in %.4f seconds\n",
+                characters,
+                wordCount[0],
+                frequencies.size(),
+                time / 1e9);
+    }
+}
@@ -1,124 +1,96 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/23
-    Updated: 2020/09/28
+    Updated: 2026/10/18
     Purpose:
         MostCommonWords takes in a file, indexes the word inside it, process
         that information to let the user ask for which are the k:th most common
         word or k+n:th most common word_s_.
+        The words are ranked by a `WordRanking`, so each question takes
+        O(log n + n) with no sorting, and words as common as each other are
+        ranked in alphabetical order.
     Usage:
         Run the main method with the file mentioned above as the first
         argument. The file may only contain alphabetical, newline, and/or
         blank characters.
-        Requires `HashTable` and `TextUtility` to work.
+        The words are counted with a `FrequencyTable`; pass `--indices` as the
+        second argument to go through the index table of `TextUtility`
+        instead, or `--live` to count the words in the background and answer
+        questions on the words counted so far.
+        Requires `FrequencyTable`, `MappedTokenizer`, `TextUtility`, and
+        `WordRanking` to work.
  */
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 public class MostCommonWords
 {
-    private static final int HASHTABLE_SIZE = 512;
-
-    // returns hash table with frequency of words associated with said words
-    // from a hash table containing the indices for each word
-    private static HashTable<Integer, List<String>> mostCommonWords(
-            HashTable<String, List<Long>> indices)
+    // counts the words of the file in a new thread, ranking them as they are
+    // counted
+    private static Thread countInBackground(File file, WordRanking ranking)
     {
-        HashTable<Integer, List<String>> frequencyToWords =
-                new HashTable<>(HASHTABLE_SIZE);
-
-        for (String word : indices)
+        Thread counter = new Thread(() ->
         {
-            // the frequency is the amount of indices that the word is found
-            // on
-            int frequency = indices
-                    .get(word)
-                    .size();
-
-            // if the frequency already exists in the list, add the word
-            // to the list of words for that frequency
-            if (frequencyToWords.contains(frequency))
+            try
             {
-                frequencyToWords
-                        .get(frequency)
-                        .add(word);
+                MappedTokenizer.tokenize(
+                        file,
+                        (word, index) -> ranking.increment(word));
             }
-            // otherwise create a new list with that word in it and put
-            // that list into the table of frequencies together with
-            // the frequency
-            else
+            catch (IOException e)
             {
-                List<String> wordList =
-                        new ArrayList<>();
-
-                wordList.add(word);
-
-                frequencyToWords.put(frequency, wordList);
+                throw new UncheckedIOException(e);
             }
-        }
+        });
 
-        return frequencyToWords;
-    }
-
-    // returns an integer array containing all the frequencies, sorted in
-    // descending order
-    private static Integer[] orderFrequencies(
-            HashTable<Integer, List<String>> frequenciesToWords)
-    {
-        // the hash table increases its size 3 times for nothing, adjust
-        // for that fault here
-        Integer[] orderedFrequencies = new Integer[frequenciesToWords.size() - 3];
-
-        // go through all the frequencies and put them into an array
-        int index = 0;
-        for (int frequency : frequenciesToWords)
-        {
-            orderedFrequencies[index++] = frequency;
-        }
-
-        // sort said array
-        Arrays.sort(orderedFrequencies, Collections.reverseOrder());
-
-        return orderedFrequencies;
+        counter.setDaemon(true);
+        counter.start();
+        return counter;
     }
 
     public static void main(String[] args) throws IOException
     {
         // index the file before taking input
         File theTextFile = new File(args[0]);
-        Scanner theTextScanner = new Scanner(theTextFile);
-
-        // index words in file
-        System.out.print("Indexing...");
 
-        // take time of the operation
-        long start = System.nanoTime();
+        String option = args.length > 1
+                ? args[1]
+                : "";
 
-        HashTable<String, List<Long>> indices =
-                TextUtility.createIndexTable(theTextScanner);
+        WordRanking ranking;
 
-        System.out.println(" Done");
-        System.out.print("Ordering...");
-
-        // reverse the index table to a frequency (of each word) table
-        HashTable<Integer, List<String>> frequencyToWords =
-                mostCommonWords(indices);
+        if (option.equals("--live"))
+        {
+            // questions are answered on the words counted so far
+            ranking = new WordRanking();
+            countInBackground(theTextFile, ranking);
+            System.out.println("Counting in the background");
+        }
+        else
+        {
+            // index words in file
+            System.out.print("Indexing...");
 
-        // collect all frequencies into an array and sort it in descending
-        // order
-        Integer[] orderedFrequencies =
-                orderFrequencies(frequencyToWords);
+            // take time of the operation
+            long start = System.nanoTime();
 
-        // get the total time of the operation
-        long time = System.nanoTime() - start;
+            // only the frequencies are needed, so the words are counted
+            // rather than indexed unless the index table is asked for
+            ranking = option.equals("--indices")
+                    ? WordRanking.of(TextUtility.createIndexTableParallel(theTextFile))
+                    : WordRanking.of(TextUtility.countWords(theTextFile));
 
-        System.out.println(" Done");
+            // get the total time of the operation
+            long time = System.nanoTime() - start;
 
+            System.out.println(" Done");
 
-        // print out the operation time in seconds, 5th decimal cut off
-        System.out.printf("Operations took %.4f seconds\n", time / 1e9);
+            // print out the operation time in seconds, 5th decimal cut off
+            System.out.printf("Operations took %.4f seconds\n", time / 1e9);
+        }
 
         // take input from user
         Scanner in = new Scanner(System.in);
@@ -126,7 +98,7 @@ public class MostCommonWords
         while (true)
         {
             System.out.println("Please enter a number k for the kth most " +
-                    "common word and k+n for kth to the k+nth most common" +
+                    "common word and k+n for kth to the k+nth most common " +
                     "element");
             String input = in.nextLine();
 
@@ -136,6 +108,10 @@ public class MostCommonWords
                 break;
             }
 
+            // the number of ranked words may grow between questions when
+            // counting in the background
+            int size = ranking.size();
+
             // if the input contains a '+' it means that there will be two
             // numbers (separated by said '+'), one for the starting 1-based
             // index and the other for the overreaching length.
@@ -151,10 +127,10 @@ public class MostCommonWords
                 int index  = Integer.parseInt(values[0]) - 1;
                 int length = Integer.parseInt(values[1]);
 
-                // if the index is less than the start index of the array
-                // or larger than the end index of the array, tell the user
-                // that the index is too small or long
-                if (index < 0 || index >= orderedFrequencies.length)
+                // if the index is less than the first rank or larger than
+                // the last rank, tell the user that the index is too small
+                // or long
+                if (index < 0 || index >= size)
                 {
                     System.out.println("Input index is too small or too " +
                             "large, please try again");
@@ -164,31 +140,30 @@ public class MostCommonWords
                 // else
 
                     // index is 0-based, add 1 so its 1-based; the same as
-                    // length and orderedFrequencies.length
-                    if (index + 1 + length > orderedFrequencies.length)
+                    // size
+                    if (index + 1 + length > size)
                     {
-                        length = orderedFrequencies.length - (index + 1);
+                        length = size - (index + 1);
                         System.out.printf(
                                 "Too long, shortened length to %d\n",
                                 length);
                     }
 
-
                     // print out the most common words selected by the user
                     System.out.printf(
                             "The most common %dth to %dth words are:\n",
                             index + 1,
                             index + length + 1);
 
-                    for (int i = index; i < index + length; i++)
+                    // only the asked for ranks are walked
+                    int rank = index + 1;
+                    for (String word : ranking.words(index, index + length + 1))
                     {
-                        List<String> words = frequencyToWords.get(
-                                orderedFrequencies[i]);
-
                         System.out.printf(
-                                "%d. %s\n",
-                                i - index + 1,
-                                words);
+                                "%d. %s (%d times)\n",
+                                rank++,
+                                word,
+                                ranking.count(word));
                     }
             }
             else
@@ -196,10 +171,10 @@ public class MostCommonWords
                 // make inputted 1-based index from user into 0-bases index
                 int index = Integer.parseInt(input) - 1;
 
-                // if the index is less than the start index of the array
-                // or larger than the end index of the array, tell the user
-                // that the index is too small or long
-                if (index < 0 || index >= orderedFrequencies.length)
+                // if the index is less than the first rank or larger than
+                // the last rank, tell the user that the index is too small
+                // or long
+                if (index < 0 || index >= size)
                 {
                     System.out.println("Input index is too small or too " +
                             "large, please try again");
@@ -207,13 +182,13 @@ public class MostCommonWords
                 else
                 {
                     // print the most common word as indexed by the user
-                    List<String> words = frequencyToWords.get(
-                            orderedFrequencies[index]);
+                    String word = ranking.select(index);
 
                     System.out.printf(
-                            "The %dth most common words are %s\n",
+                            "The %dth most common word is %s (%d times)\n",
                             index + 1,
-                            words);
+                            word,
+                            ranking.count(word));
 
                 }
             }
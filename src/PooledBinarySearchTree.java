@@ -0,0 +1,434 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        PooledBinarySearchTree attempts at implementing the same binary
+        search tree as `BinarySearchTree` without an object per node.
+        The keys, values, and the indices of the left and right children of
+        the nodes are kept in parallel arrays, so a node is only an index
+        and the tree is a handful of arrays however many nodes it has. This
+        saves the object header and the reference to the tree of every
+        `BinarySearchTree.Node`, and leaves the garbage collector four
+        arrays per chunk to trace instead of a node per entry.
+        The arrays grow in chunks of `CHUNK_SIZE` nodes; nodes never move,
+        so growing only allocates the new chunk and never copies the old
+        ones.
+        Like `BinarySearchTree`, keys greater than a node are on its left
+        side and lesser keys on its right side.
+        This class only implements searching, retrieval, appending, and
+        iteration.
+    Usage:
+        Import the class to use the tree or run the main method to run its
+        tests. The input for the tests must be representation of
+        "String{blank space}Integer", followed by keys to look up.
+        Requires `SymbolTable` to work.
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class PooledBinarySearchTree<TKey extends Comparable<TKey>, TValue>
+        implements SymbolTable<TKey, TValue>
+{
+    // the number of nodes per chunk, a power of two so that the chunk and
+    // the position in it are a shift and a mask of the index
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // the index of an empty link
+    private static final int NONE = -1;
+
+    // keys[c][i], values[c][i], left[c][i], and right[c][i] make up the node
+    // with the index c * CHUNK_SIZE + i
+    private Object[][] keys = new Object[1][];
+    private Object[][] values = new Object[1][];
+    private int[][] left = new int[1][];
+    private int[][] right = new int[1][];
+
+    private int chunkCount;
+    private int size;
+    private int root = NONE;
+
+    public PooledBinarySearchTree() {}
+
+    public int size()
+    {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TKey keyOf(int node)
+    {
+        return (TKey)keys[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    @SuppressWarnings("unchecked")
+    private TValue valueOf(int node)
+    {
+        return (TValue)values[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    private void setValue(int node, TValue value)
+    {
+        values[node >>> CHUNK_BITS][node & CHUNK_MASK] = value;
+    }
+
+    private int leftOf(int node)
+    {
+        return left[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    private int rightOf(int node)
+    {
+        return right[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    // adds a chunk for the next `CHUNK_SIZE` nodes
+    private void addChunk()
+    {
+        // the chunk tables themselves are tiny and grow by doubling
+        if (chunkCount == keys.length)
+        {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            values = Arrays.copyOf(values, chunkCount * 2);
+            left = Arrays.copyOf(left, chunkCount * 2);
+            right = Arrays.copyOf(right, chunkCount * 2);
+        }
+
+        keys[chunkCount] = new Object[CHUNK_SIZE];
+        values[chunkCount] = new Object[CHUNK_SIZE];
+        left[chunkCount] = new int[CHUNK_SIZE];
+        right[chunkCount] = new int[CHUNK_SIZE];
+        chunkCount++;
+    }
+
+    // takes the next free node and returns its index
+    private int newNode(TKey key, TValue value)
+    {
+        if (size == chunkCount * CHUNK_SIZE)
+        {
+            addChunk();
+        }
+
+        int node = size++;
+        int chunk = node >>> CHUNK_BITS;
+        int position = node & CHUNK_MASK;
+
+        keys[chunk][position] = key;
+        values[chunk][position] = value;
+        left[chunk][position] = NONE;
+        right[chunk][position] = NONE;
+
+        return node;
+    }
+
+    // returns the index of the node with the key, or NONE if there is no
+    // such node
+    private int find(TKey key)
+    {
+        int current = root;
+
+        while (current != NONE)
+        {
+            int comparison = key.compareTo(keyOf(current));
+
+            // key = current, this is the node
+            if (comparison == 0)
+            {
+                return current;
+            }
+
+            // key > current, continue on the left side for the key,
+            // otherwise on the right side
+            current = comparison > 0
+                    ? leftOf(current)
+                    : rightOf(current);
+        }
+
+        return NONE;
+    }
+
+    // puts the key into the tree, or merges the value into the existing one
+    // with `remapping` if it isn't null, and returns the new value
+    private TValue insert(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        int parent = NONE;
+        int current = root;
+        int comparison = 0;
+
+        while (current != NONE)
+        {
+            comparison = key.compareTo(keyOf(current));
+
+            // key = current, just change values
+            if (comparison == 0)
+            {
+                TValue oldValue = valueOf(current);
+                TValue newValue = remapping == null || oldValue == null
+                        ? value
+                        : remapping.apply(oldValue, value);
+
+                setValue(current, newValue);
+                return newValue;
+            }
+
+            parent = current;
+            current = comparison > 0
+                    ? leftOf(current)
+                    : rightOf(current);
+        }
+
+        int node = newNode(key, value);
+
+        // no nodes inside, the node is the root
+        if (parent == NONE)
+        {
+            root = node;
+        }
+        // otherwise the node goes on the side of the parent the walk ended on
+        else if (comparison > 0)
+        {
+            left[parent >>> CHUNK_BITS][parent & CHUNK_MASK] = node;
+        }
+        else
+        {
+            right[parent >>> CHUNK_BITS][parent & CHUNK_MASK] = node;
+        }
+
+        return value;
+    }
+
+    // adds the key and the associated value into the tree
+    public void put(TKey key, TValue value)
+    {
+        insert(key, value, null);
+    }
+
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // returns the new value. the tree is only walked once
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        return insert(key, value, remapping);
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it.
+    // the tree is walked a second time only to put a new value
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        int node = find(key);
+
+        if (node != NONE && valueOf(node) != null)
+        {
+            return valueOf(node);
+        }
+
+        TValue value = mapping.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception
+    public TValue get(TKey key)
+    {
+        int node = find(key);
+
+        if (node == NONE)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return valueOf(node);
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        int node = find(key);
+
+        return node == NONE
+                ? defaultValue
+                : valueOf(node);
+    }
+
+    // returns true if an element associated with the given key exists,
+    // otherwise false
+    public boolean contains(TKey key)
+    {
+        return find(key) != NONE;
+    }
+
+    // returns all keys in ascending order. lesser keys are on the right side,
+    // so the walk goes right first; the nodes still to be returned are kept
+    // on a stack of indices that grows like the chunks do
+    @Override
+    public Iterator<TKey> iterator()
+    {
+        return new Iterator<TKey>()
+        {
+            private int[] stack = new int[16];
+            private int depth;
+
+            {
+                pushRightPath(root);
+            }
+
+            // pushes the node and every node down its chain of right
+            // children, the lesser keys
+            private void pushRightPath(int node)
+            {
+                for (; node != NONE; node = rightOf(node))
+                {
+                    if (depth == stack.length)
+                    {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+
+                    stack[depth++] = node;
+                }
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return depth > 0;
+            }
+
+            @Override
+            public TKey next()
+            {
+                if (depth == 0)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                int node = stack[--depth];
+                pushRightPath(leftOf(node));
+
+                return keyOf(node);
+            }
+        };
+    }
+
+    // returns a string representation of the object; specifically in prefix
+    // notion, the same as `BinarySearchTree`. the nodes are walked with a
+    // stack of indices, the next node on top
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("[");
+
+        int[] stack = new int[16];
+        int depth = 0;
+        if (root != NONE)
+        {
+            stack[depth++] = root;
+        }
+
+        while (depth > 0)
+        {
+            int node = stack[--depth];
+
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+
+            sb.append('{')
+                    .append(keyOf(node))
+                    .append(", ")
+                    .append(valueOf(node))
+                    .append('}');
+
+            // room for both children
+            if (depth + 2 > stack.length)
+            {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            // the left sub tree is written before the right one
+            if (rightOf(node) != NONE)
+            {
+                stack[depth++] = rightOf(node);
+            }
+
+            if (leftOf(node) != NONE)
+            {
+                stack[depth++] = leftOf(node);
+            }
+        }
+
+        return sb.append(']').toString();
+    }
+
+    // test method
+    public static void main(String[] args)
+    {
+        // take the number of inputs from the user in the form of
+        // "{string} {integer}", split them by whitespace and add them to
+        // the tree as key and value, respectively.
+        // lastly, print out the tree and look up the remaining words
+        PooledBinarySearchTree<String, Integer> tree =
+                new PooledBinarySearchTree<>();
+
+        Scanner in = new Scanner(System.in);
+        System.out.print("Number of inputs: ");
+
+        int amount = in.nextInt();
+        // the '\n' character is not cleared from the buffer by nextInt(),
+        // this clears it
+        in.nextLine();
+
+        // take in given amount of inputs
+        System.out.println("Inputs:");
+        for (int count = 0; count < amount; count++)
+        {
+            // separate the key and value by blank space
+            String line = in.nextLine();
+            String[] values = line.split("\\s+");
+
+            // parse values into correct form
+            int integer = Integer.parseInt(values[1]);
+            String str = values[0];
+
+            // add them to the tree
+            tree.put(str, integer);
+        }
+
+        // print out the tree
+        System.out.println(tree);
+
+        // look up every following word
+        while (in.hasNext())
+        {
+            String key = in.next();
+
+            System.out.printf(
+                    "%s: %s\n",
+                    key,
+                    tree.getOrDefault(key, null));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        PostingList holds an ascending list of character indices of a word.
+        Each index is stored as the difference to the index before it,
+        encoded as a variable length integer of 7 bits per byte, so that
+        indices close to each other take a byte or two instead of a boxed
+        Long. Indices can only be appended, and are read back in order
+        through a decoder without any boxing.
+        The number of indices and the last index are kept alongside the
+        bytes, so neither needs a pass over the list.
+    Usage:
+        Import the class to store indices or run the main method with a
+        list of ascending numbers to see how many bytes they take.
+ */
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Scanner;
+
+public class PostingList
+{
+    private byte[] bytes;
+    private int length;
+
+    private int size;
+    private long last;
+
+    public PostingList()
+    {
+        bytes = new byte[4];
+    }
+
+    // returns the number of indices in the list
+    public int size()
+    {
+        return size;
+    }
+
+    // returns the number of bytes used by the encoded indices
+    public int byteSize()
+    {
+        return length;
+    }
+
+    // returns the last index of the list or throws a NoSuchElement exception
+    // if the list is empty
+    public long last()
+    {
+        if (size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+
+        return last;
+    }
+
+    // makes room for at least `extra` more bytes
+    private void ensureCapacity(int extra)
+    {
+        if (length + extra > bytes.length)
+        {
+            bytes = Arrays.copyOf(
+                    bytes,
+                    Math.max(length + extra, bytes.length * 2));
+        }
+    }
+
+    // appends the value as a variable length integer, 7 bits at a time with
+    // the high bit set on every byte but the last
+    private void writeVarLong(long value)
+    {
+        ensureCapacity(10);
+
+        while ((value & ~0x7FL) != 0)
+        {
+            bytes[length++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        bytes[length++] = (byte)value;
+    }
+
+    // appends an index to the list, which must not be less than the last
+    // index of the list
+    public void add(long index)
+    {
+        if (size > 0 && index < last)
+        {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%d is less than the last index %d",
+                            index,
+                            last));
+        }
+
+        writeVarLong(index - (size == 0 ? 0 : last));
+
+        last = index;
+        size++;
+    }
+
+    // appends every index of `other` moved by `offset`. the first index of
+    // `other` moved by `offset` must not be less than the last index of this
+    // list. only the first difference is encoded again, the rest of the
+    // bytes are copied as they are
+    public void addAll(PostingList other, long offset)
+    {
+        if (other.size == 0)
+        {
+            return;
+        }
+
+        // read the first index of `other`, which is stored as is
+        long first = 0;
+        int position = 0;
+        for (int shift = 0; ; shift += 7)
+        {
+            byte b = other.bytes[position++];
+            first |= (long)(b & 0x7F) << shift;
+
+            if (b >= 0)
+            {
+                break;
+            }
+        }
+
+        add(first + offset);
+
+        int rest = other.length - position;
+        ensureCapacity(rest);
+        System.arraycopy(other.bytes, position, bytes, length, rest);
+        length += rest;
+
+        size += other.size - 1;
+        last = other.last + offset;
+    }
+
+    // frees the unused space at the end of the byte array, for lists that
+    // are done being built
+    public void trim()
+    {
+        if (bytes.length > length)
+        {
+            bytes = Arrays.copyOf(bytes, length);
+        }
+    }
+
+    // writes the encoded indices, as many bytes as `byteSize()`, to `out`
+    void writeEncoded(DataOutput out) throws IOException
+    {
+        out.write(bytes, 0, length);
+    }
+
+    // returns a list holding the `byteSize` encoded bytes at `position` in
+    // `buffer`, as written by `writeEncoded`, which encode `size` indices
+    // ending with `last`
+    static PostingList readEncoded(
+            ByteBuffer buffer,
+            int position,
+            int byteSize,
+            int size,
+            long last)
+    {
+        PostingList list = new PostingList();
+
+        list.bytes = new byte[byteSize];
+        buffer.get(position, list.bytes);
+
+        list.length = byteSize;
+        list.size = size;
+        list.last = last;
+
+        return list;
+    }
+
+    // returns a decoder reading the indices in ascending order
+    public PrimitiveIterator.OfLong iterator()
+    {
+        return new PrimitiveIterator.OfLong()
+        {
+            // position is the byte the next index starts at and previous is
+            // the index the next difference is added to
+            int position = 0;
+            long previous = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return position < length;
+            }
+
+            @Override
+            public long nextLong()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+
+                long difference = 0;
+                for (int shift = 0; ; shift += 7)
+                {
+                    byte b = bytes[position++];
+                    difference |= (long)(b & 0x7F) << shift;
+
+                    if (b >= 0)
+                    {
+                        break;
+                    }
+                }
+
+                previous += difference;
+                return previous;
+            }
+        };
+    }
+
+    // returns the indices as an array
+    public long[] toArray()
+    {
+        long[] indices = new long[size];
+
+        PrimitiveIterator.OfLong decoder = iterator();
+        for (int i = 0; i < size; i++)
+        {
+            indices[i] = decoder.nextLong();
+        }
+
+        return indices;
+    }
+
+    // two lists are equal if they hold the same indices
+    @Override
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof PostingList))
+        {
+            return false;
+        }
+
+        PostingList other = (PostingList)o;
+
+        return size == other.size
+                && Arrays.equals(bytes, 0, length, other.bytes, 0, other.length);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = size;
+
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + bytes[i];
+        }
+
+        return hash;
+    }
+
+    // returns the string representation of the object, in the same form as
+    // a list of the indices
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(toArray());
+    }
+
+    // test method
+    public static void main(String[] args)
+    {
+        // take ascending numbers separated by whitespace, then print them
+        // back out along with the bytes they take
+        PostingList list = new PostingList();
+
+        Scanner in = new Scanner(System.in);
+        while (in.hasNextLong())
+        {
+            list.add(in.nextLong());
+        }
+
+        System.out.println(list);
+        System.out.printf(
+                "%d indices in %d bytes, compared to %d bytes as boxed Longs\n",
+                list.size(),
+                list.byteSize(),
+                list.size() * 20L);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        PostingTable collects the indices of words as they are read, with an
+        open addressing hash table using linear probing like
+        `FrequencyTable`, but holding a `PostingList` per word instead of a
+        count.
+        Words can be given as any CharSequence, so that a tokenizer can pass
+        the same reused buffer for every word. Adding an index looks the
+        word up once; a String and a PostingList are only created for words
+        that are new to the table.
+        The table is meant to be filled and then read once, with `forEach`,
+        into a symbol table; it can't remove words.
+    Usage:
+        Import the class to collect indices or run the main method with text
+        piped in to print the word indices of every word.
+        Requires `FrequencyTable`, `PostingList`, and `TextUtility` to work.
+ */
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.function.BiConsumer;
+
+public class PostingTable
+{
+    // capacities are always powers of two so the slot of a hash can be
+    // found by masking
+    private static final double LOAD_FACTOR = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // slot i is empty if keys[i] is null, otherwise hashes[i] is the hash of
+    // keys[i] and postings[i] holds its indices
+    private String[] keys;
+    private int[] hashes;
+    private PostingList[] postings;
+
+    private int size;
+    private int threshold;
+
+    public PostingTable(int expectedSize)
+    {
+        if (expectedSize < 0 || expectedSize > MAX_CAPACITY * LOAD_FACTOR)
+        {
+            throw new IllegalArgumentException(
+                    "expected size must be between 0 and "
+                            + (int)(MAX_CAPACITY * LOAD_FACTOR)
+                            + ": " + expectedSize);
+        }
+
+        // the smallest power of two that fits `expectedSize` entries without
+        // going over the load factor
+        int capacity = 2;
+        while (capacity * LOAD_FACTOR < expectedSize)
+        {
+            capacity *= 2;
+        }
+
+        allocate(capacity);
+    }
+
+    // replaces the arrays with empty arrays of the given capacity
+    private void allocate(int capacity)
+    {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        postings = new PostingList[capacity];
+        threshold = (int)(capacity * LOAD_FACTOR);
+    }
+
+    // returns the number of words in the table
+    public int size()
+    {
+        return size;
+    }
+
+    // returns the slot of the word, or the empty slot where it would be
+    // placed if it isn't in the table
+    private int slotOf(CharSequence word, int hash)
+    {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+
+        while (keys[slot] != null
+                && !(hashes[slot] == hash && keys[slot].contentEquals(word)))
+        {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    // doubles the capacity and places every entry in its new slot
+    private void grow()
+    {
+        if (keys.length == MAX_CAPACITY)
+        {
+            throw new IllegalStateException(
+                    "table is at its maximum capacity of " + MAX_CAPACITY);
+        }
+
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        PostingList[] oldPostings = postings;
+
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] == null)
+            {
+                continue;
+            }
+
+            // all words are distinct, so only an empty slot has to be found
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            postings[slot] = oldPostings[i];
+        }
+    }
+
+    // adds the index to the indices of the word, which must not be less than
+    // any index already added for it
+    public void add(CharSequence word, long index)
+    {
+        int hash = FrequencyTable.hash(word);
+        int slot = slotOf(word, hash);
+
+        // the word is new, claim the empty slot for it
+        if (keys[slot] == null)
+        {
+            keys[slot] = word.toString();
+            hashes[slot] = hash;
+            postings[slot] = new PostingList();
+            postings[slot].add(index);
+
+            // the index is added before the table may grow and move the entry
+            if (++size > threshold)
+            {
+                grow();
+            }
+
+            return;
+        }
+
+        postings[slot].add(index);
+    }
+
+    // returns the indices of the word or throws a NoSuchElement exception
+    public PostingList get(CharSequence word)
+    {
+        int slot = slotOf(word, FrequencyTable.hash(word));
+
+        if (keys[slot] == null)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            word)
+            );
+        }
+
+        return postings[slot];
+    }
+
+    // runs the action on every word and its indices, in no particular order
+    public void forEach(BiConsumer<? super String, ? super PostingList> action)
+    {
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != null)
+            {
+                action.accept(keys[i], postings[i]);
+            }
+        }
+    }
+
+    // returns a string representation of the object
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("[");
+
+        forEach((word, postingList) ->
+        {
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+
+            sb.append('{')
+                    .append(word)
+                    .append(", ")
+                    .append(postingList)
+                    .append('}');
+        });
+
+        return sb.append(']').toString();
+    }
+
+    // test method, prints the 0-based word indices of every word piped in
+    public static void main(String[] args)
+    {
+        Scanner in = new Scanner(System.in);
+        PostingTable table = new PostingTable(16);
+
+        long index = 0;
+        while (in.hasNextLine())
+        {
+            for (String word : TextUtility.getWords(in.nextLine()))
+            {
+                table.add(word, index++);
+            }
+        }
+
+        System.out.println(table);
+    }
+}
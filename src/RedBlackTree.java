@@ -0,0 +1,712 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        RedBlackTree attempts at implementing a self-balancing binary search
+        tree as a left-leaning red-black tree.
+        Every path from the root to an empty link has the same number of
+        black links and no node has two red links, which keeps the height
+        at most 2 lg n no matter the order the keys are put in. Sorted
+        input, which turns `BinarySearchTree` into a linked list, is handled
+        as well as any other.
+        Every node also keeps the number of nodes in its sub tree, which
+        tells how many keys are less than any key on the way down, so
+        `select(rank)`, `rank(key)`, and starting `keysByRank` at any rank
+        all take O(log n), and keys can be removed. The sizes are updated
+        on every rotation, at the cost of an int per node.
+    Usage:
+        Import the class to use the tree or run the main method to run its
+        tests. The input for the tests must be representation of
+        "String{blank space}Integer", followed by a rank to select.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class RedBlackTree<TKey extends Comparable<TKey>, TValue>
+        implements SymbolTable<TKey, TValue>
+{
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    private class Node
+    {
+        public TKey key;
+        public TValue value;
+        public Node left;
+        public Node right;
+
+        // the color of the link from the parent to this node
+        public boolean color;
+
+        // the number of nodes in the sub tree of this node, itself included
+        public int size;
+
+        // returns the key and value of the node
+        @Override
+        public String toString()
+        {
+            return "{" + key + ", " + value + "}";
+        }
+    }
+
+    Node root;
+
+    // the value the key ended up with in the last call to `insert`
+    private TValue insertedValue;
+
+    public RedBlackTree() {}
+
+    // returns the number of nodes in the sub tree, 0 for an empty link
+    private int size(Node n)
+    {
+        return n == null
+                ? 0
+                : n.size;
+    }
+
+    public int size()
+    {
+        return size(root);
+    }
+
+    // returns true if the link to the node is red, empty links are black
+    private boolean isRed(Node n)
+    {
+        return n != null && n.color == RED;
+    }
+
+    // turns a right leaning red link into a left leaning one
+    private Node rotateLeft(Node n)
+    {
+        Node x = n.right;
+        n.right = x.left;
+        x.left = n;
+        x.color = n.color;
+        n.color = RED;
+
+        // x takes the place of n, so it has the size n used to have
+        x.size = n.size;
+        n.size = 1 + size(n.left) + size(n.right);
+        return x;
+    }
+
+    // turns a left leaning red link into a right leaning one
+    private Node rotateRight(Node n)
+    {
+        Node x = n.left;
+        n.left = x.right;
+        x.right = n;
+        x.color = n.color;
+        n.color = RED;
+
+        x.size = n.size;
+        n.size = 1 + size(n.left) + size(n.right);
+        return x;
+    }
+
+    // flips the colors of the node and its children, which splits a
+    // temporary 4-node on the way up or merges a 4-node on the way down
+    private void flipColors(Node n)
+    {
+        n.color = !n.color;
+        n.left.color = !n.left.color;
+        n.right.color = !n.right.color;
+    }
+
+    // restores the invariants of the sub tree on the way back up: no right
+    // leaning red links, no two red links in a row, and no node with two red
+    // links. also updates the size of the node
+    private Node balance(Node n)
+    {
+        if (isRed(n.right) && !isRed(n.left))
+        {
+            n = rotateLeft(n);
+        }
+
+        if (isRed(n.left) && isRed(n.left.left))
+        {
+            n = rotateRight(n);
+        }
+
+        if (isRed(n.left) && isRed(n.right))
+        {
+            flipColors(n);
+        }
+
+        n.size = 1 + size(n.left) + size(n.right);
+        return n;
+    }
+
+    // recursive function to insert or update the key in the sub tree and
+    // rebalance it on the way back up. the recursion is only as deep as the
+    // tree is high, which is at most 2 lg n
+    private Node insert(
+            Node n,
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        // empty link, the new node is attached here with a red link
+        if (n == null)
+        {
+            Node newNode = new Node();
+            newNode.key = key;
+            newNode.value = value;
+            newNode.color = RED;
+            newNode.size = 1;
+            insertedValue = value;
+            return newNode;
+        }
+
+        int comparison = key.compareTo(n.key);
+
+        if (comparison < 0)
+        {
+            n.left = insert(n.left, key, value, remapping);
+        }
+        else if (comparison > 0)
+        {
+            n.right = insert(n.right, key, value, remapping);
+        }
+        // key = n, either replace or merge the value
+        else
+        {
+            n.value = remapping == null || n.value == null
+                    ? value
+                    : remapping.apply(n.value, value);
+            insertedValue = n.value;
+        }
+
+        return balance(n);
+    }
+
+    // adds the key and the associated value into the tree
+    public void put(TKey key, TValue value)
+    {
+        root = insert(root, key, value, null);
+        root.color = BLACK;
+    }
+
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // the tree is only walked once. returns the new value
+    public TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping)
+    {
+        root = insert(root, key, value, remapping);
+        root.color = BLACK;
+
+        TValue newValue = insertedValue;
+        insertedValue = null;
+        return newValue;
+    }
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it.
+    // the tree is walked a second time only to put a new value
+    public TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping)
+    {
+        Node n = find(key);
+
+        if (n != null && n.value != null)
+        {
+            return n.value;
+        }
+
+        TValue value = mapping.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    // makes the left child of the node or one of its children red, so that
+    // the left side can lose a node
+    private Node moveRedLeft(Node n)
+    {
+        flipColors(n);
+
+        if (isRed(n.right.left))
+        {
+            n.right = rotateRight(n.right);
+            n = rotateLeft(n);
+            flipColors(n);
+        }
+
+        return n;
+    }
+
+    // makes the right child of the node or one of its children red, so that
+    // the right side can lose a node
+    private Node moveRedRight(Node n)
+    {
+        flipColors(n);
+
+        if (isRed(n.left.left))
+        {
+            n = rotateRight(n);
+            flipColors(n);
+        }
+
+        return n;
+    }
+
+    // recursive function to remove the least node of the sub tree
+    private Node removeMin(Node n)
+    {
+        if (n.left == null)
+        {
+            return null;
+        }
+
+        if (!isRed(n.left) && !isRed(n.left.left))
+        {
+            n = moveRedLeft(n);
+        }
+
+        n.left = removeMin(n.left);
+        return balance(n);
+    }
+
+    // returns the least node of the sub tree
+    private Node min(Node n)
+    {
+        while (n.left != null)
+        {
+            n = n.left;
+        }
+
+        return n;
+    }
+
+    // recursive function to remove the key from the sub tree, which must
+    // contain it. red links are pushed down on the way so that the removed
+    // node is never a lone black node, then the tree is balanced on the way
+    // back up
+    private Node remove(Node n, TKey key)
+    {
+        if (key.compareTo(n.key) < 0)
+        {
+            if (!isRed(n.left) && !isRed(n.left.left))
+            {
+                n = moveRedLeft(n);
+            }
+
+            n.left = remove(n.left, key);
+        }
+        else
+        {
+            if (isRed(n.left))
+            {
+                n = rotateRight(n);
+            }
+
+            // the key is at the bottom, it can just be dropped
+            if (key.compareTo(n.key) == 0 && n.right == null)
+            {
+                return null;
+            }
+
+            if (!isRed(n.right) && !isRed(n.right.left))
+            {
+                n = moveRedRight(n);
+            }
+
+            // replace the node by the least node on its right side
+            if (key.compareTo(n.key) == 0)
+            {
+                Node successor = min(n.right);
+                n.key = successor.key;
+                n.value = successor.value;
+                n.right = removeMin(n.right);
+            }
+            else
+            {
+                n.right = remove(n.right, key);
+            }
+        }
+
+        return balance(n);
+    }
+
+    // removes the key and its value from the tree, returns true if the key
+    // was in the tree, otherwise false
+    public boolean remove(TKey key)
+    {
+        if (!contains(key))
+        {
+            return false;
+        }
+
+        // a red root lets the first step down borrow from it
+        if (!isRed(root.left) && !isRed(root.right))
+        {
+            root.color = RED;
+        }
+
+        root = remove(root, key);
+
+        if (root != null)
+        {
+            root.color = BLACK;
+        }
+
+        return true;
+    }
+
+    // returns the node with the key or null if there is no such node
+    private Node find(TKey key)
+    {
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            if (comparison == 0)
+            {
+                return current;
+            }
+
+            current = comparison < 0
+                    ? current.left
+                    : current.right;
+        }
+
+        return null;
+    }
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception
+    public TValue get(TKey key)
+    {
+        Node n = find(key);
+
+        if (n == null)
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            key)
+            );
+        }
+
+        return n.value;
+    }
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        Node n = find(key);
+
+        return n == null
+                ? defaultValue
+                : n.value;
+    }
+
+    // returns true if an element associated with the given key exists,
+    // otherwise false
+    public boolean contains(TKey key)
+    {
+        return find(key) != null;
+    }
+
+    // returns the number of keys less than the given key, which is the rank
+    // the key has or would have in the tree
+    public int rank(TKey key)
+    {
+        int rank = 0;
+        Node current = root;
+
+        while (current != null)
+        {
+            int comparison = key.compareTo(current.key);
+
+            if (comparison == 0)
+            {
+                return rank + size(current.left);
+            }
+
+            // every key on the left side and the node itself are less than
+            // the key
+            if (comparison > 0)
+            {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+            else
+            {
+                current = current.left;
+            }
+        }
+
+        return rank;
+    }
+
+    // returns the node with `rank` keys less than it or throws a
+    // NoSuchElement exception if the rank is outside of the tree
+    private Node nodeAt(int rank)
+    {
+        if (rank < 0 || rank >= size())
+        {
+            throw new NoSuchElementException(
+                    String.format(
+                            "%s{%s}",
+                            getClass().getName(),
+                            rank)
+            );
+        }
+
+        Node current = root;
+
+        while (true)
+        {
+            int leftSize = size(current.left);
+
+            if (rank == leftSize)
+            {
+                return current;
+            }
+
+            if (rank < leftSize)
+            {
+                current = current.left;
+            }
+            else
+            {
+                rank -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    // returns the key with `rank` keys less than it, that is the key at the
+    // 0-based position `rank` in ascending order
+    public TKey select(int rank)
+    {
+        return nodeAt(rank).key;
+    }
+
+    // returns the value of the key at the 0-based position `rank` in
+    // ascending order
+    public TValue valueAt(int rank)
+    {
+        return nodeAt(rank).value;
+    }
+
+    // returns the number of nodes on the longest path from the root, 0 for
+    // an empty tree
+    public int height()
+    {
+        return height(root);
+    }
+
+    // recursive function for the height of the sub tree; the tree is
+    // balanced, so the recursion is shallow
+    private int height(Node n)
+    {
+        return n == null
+                ? 0
+                : 1 + Math.max(height(n.left), height(n.right));
+    }
+
+    // walks the keys from one rank up to another in ascending order. the
+    // stack holds the path to the next node, so starting takes O(log n) and
+    // every step O(1) on average
+    private class RankIterator implements Iterator<TKey>
+    {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+        private int remaining;
+
+        // walks the ranks [from, to)
+        public RankIterator(int from, int to)
+        {
+            from = Math.max(from, 0);
+            to = Math.min(to, size());
+            remaining = Math.max(to - from, 0);
+
+            if (remaining == 0)
+            {
+                return;
+            }
+
+            // go down to the node at `from`, keeping the nodes that come
+            // after it on the way
+            Node current = root;
+            int rank = from;
+            while (current != null)
+            {
+                int leftSize = size(current.left);
+
+                if (rank <= leftSize)
+                {
+                    stack.push(current);
+
+                    if (rank == leftSize)
+                    {
+                        break;
+                    }
+
+                    current = current.left;
+                }
+                else
+                {
+                    rank -= leftSize + 1;
+                    current = current.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @Override
+        public TKey next()
+        {
+            if (remaining == 0)
+            {
+                throw new NoSuchElementException();
+            }
+
+            Node n = stack.pop();
+            remaining--;
+
+            // the next nodes are the left path down the right side
+            for (Node child = n.right; child != null; child = child.left)
+            {
+                stack.push(child);
+            }
+
+            return n.key;
+        }
+    }
+
+    // returns all keys in ascending order
+    @Override
+    public Iterator<TKey> iterator()
+    {
+        return new RankIterator(0, size());
+    }
+
+    // returns the keys of the ranks [from, to) in ascending order; ranks
+    // outside of the tree are left out
+    public Iterable<TKey> keysByRank(int from, int to)
+    {
+        return () -> new RankIterator(from, to);
+    }
+
+    // returns the keys that are at least `low` and less than `high` in
+    // ascending order
+    public Iterable<TKey> keys(TKey low, TKey high)
+    {
+        return keysByRank(rank(low), rank(high));
+    }
+
+    // returns a string representation of the object; specifically in prefix
+    // notion. the nodes are walked with an explicit stack and appended to a
+    // single StringBuilder, so this takes linear time however high the tree
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("[");
+
+        // the nodes yet to be written, the next one on top
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        if (root != null)
+        {
+            stack.push(root);
+        }
+
+        while (!stack.isEmpty())
+        {
+            Node n = stack.pop();
+
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+
+            sb.append('{')
+                    .append(n.key)
+                    .append(", ")
+                    .append(n.value)
+                    .append('}');
+
+            // the left sub tree is written before the right one
+            if (n.right != null)
+            {
+                stack.push(n.right);
+            }
+
+            if (n.left != null)
+            {
+                stack.push(n.left);
+            }
+        }
+
+        return sb.append(']').toString();
+    }
+
+    // test method
+    public static void main(String[] args)
+    {
+        // take the number of inputs from the user in the form of
+        // "{string} {integer}", split them by whitespace and add them to
+        // the tree as key and value, respectively.
+        // lastly, print out the tree, its height, and the key at the given
+        // rank
+        RedBlackTree<String, Integer> tree =
+                new RedBlackTree<>();
+
+        Scanner in = new Scanner(System.in);
+        System.out.print("Number of inputs: ");
+
+        int amount = in.nextInt();
+        // the '\n' character is not cleared from the buffer by nextInt(),
+        // this clears it
+        in.nextLine();
+
+        // take in given amount of inputs
+        System.out.println("Inputs:");
+        for (int count = 0; count < amount; count++)
+        {
+            // separate the key and value by blank space
+            String line = in.nextLine();
+            String[] values = line.split("\\s+");
+
+            // parse values into correct form
+            int integer = Integer.parseInt(values[1]);
+            String str = values[0];
+
+            // add them to the tree
+            tree.put(str, integer);
+        }
+
+        // print out the tree
+        System.out.println(tree);
+        System.out.println("Height: " + tree.height());
+
+        System.out.print("Rank: ");
+        int rank = in.nextInt();
+
+        String key = tree.select(rank);
+        System.out.printf(
+                "%s has rank %d and the value %d\n",
+                key,
+                tree.rank(key),
+                tree.get(key));
+    }
+}
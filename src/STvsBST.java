@@ -1,7 +1,7 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/22
-    Updated: 2020/09/28
+    Updated: 2026/10/18
     Purpose:
         This file attempts at comparing the time performance between a symbol
         table using binary search and a binary search tree.
@@ -10,17 +10,29 @@
         used to test the datastructures based on the input. The input should
         only be a file containing only alphabetical, blank, and/or newline
         characters.
-        Requires `AssociativeArraySymbolTable`, `BinarySearchTree` and
-        `TextUtility` to work.
+        Run it with `--orders` as the second argument to instead compare the
+        binary search tree with a red-black tree on the distinct words put in
+        sorted, reversed, and random order, or with `--deep` to time putting,
+        getting, and walking the keys of a binary search tree as deep as it
+        is large, or with `--pool` to compare the bytes per entry and young
+        collections of a binary search tree with a `PooledBinarySearchTree`
+        on random keys.
+        The timings here are taken without warming up the JIT and are only
+        meant to show how the costs grow with the number of words; use
+        `SymbolTableBenchmark` to compare the time per operation of the
+        tables.
+        Requires `AssociativeArraySymbolTable`, `BinarySearchTree`,
+        `PooledBinarySearchTree`, `RedBlackTree`, and `TextUtility` to work.
     Data:
         https://docs.google.com/spreadsheets/d/1IVKtUlZCghXclivxsqV2xyqhKgjjNRABMaP33QZkUmM/edit?usp=sharing
  */
 
 
 import java.io.FileNotFoundException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.math.BigInteger;
-import java.util.List;
-import java.util.Scanner;
+import java.util.*;
 
 public class STvsBST
 {
@@ -44,14 +56,7 @@ public class STvsBST
                 break;
             }
 
-            if (st.contains(word))
-            {
-                st.put(word, st.get(word) + 1);
-            }
-            else
-            {
-                st.put(word, 1);
-            }
+            st.merge(word, 1, Integer::sum);
 
             count++;
         }
@@ -79,14 +84,7 @@ public class STvsBST
                 break;
             }
 
-            if (bst.contains(word))
-            {
-                bst.put(word, bst.get(word) + 1);
-            }
-            else
-            {
-                bst.put(word, 1);
-            }
+            bst.merge(word, 1, Integer::sum);
 
             count++;
         }
@@ -132,10 +130,284 @@ public class STvsBST
         }
     }
 
+    // the amount of times to repeat each test of an input order
+    private static final int ORDER_TEST_REPETITION = 10;
+
+    // returns the time it took for a balanced tree to add all the words
+    // from the list of words
+    private static long rbtTime(List<String> words, RedBlackTree<String, Integer> rbt)
+    {
+        long start = System.nanoTime();
+
+        for (String word : words)
+        {
+            rbt.merge(word, 1, Integer::sum);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    // returns the time it took for an unbalanced tree to add all the words
+    // from the list of words
+    private static long bstTime(List<String> words, BinarySearchTree<String, Integer> bst)
+    {
+        long start = System.nanoTime();
+
+        for (String word : words)
+        {
+            bst.merge(word, 1, Integer::sum);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    // tests a bst vs a balanced tree on the distinct words among n hundred
+    // words from the standard input, put in sorted, reversed, and random
+    // order
+    private static void testOrders(int n)
+    {
+        Scanner the_text = new Scanner(System.in);
+        List<String> words = TextUtility.getWords(n * 100, the_text);
+
+        // only distinct words, so that sorted really is sorted
+        List<String> sorted = new ArrayList<>(new TreeSet<>(words));
+
+        List<String> reversed = new ArrayList<>(sorted);
+        Collections.reverse(reversed);
+
+        // a fixed seed so every run uses the same random order
+        List<String> random = new ArrayList<>(sorted);
+        Collections.shuffle(random, new Random(0));
+
+        String[] orderNames = { "Sorted", "Reversed", "Random" };
+        List<List<String>> orders = List.of(sorted, reversed, random);
+
+        System.out.println("Order, Binary Search Tree, Red-Black Tree, " +
+                "BST Height, RBT Height, Word Count");
+        for (int i = 0; i < orders.size(); i++)
+        {
+            List<String> order = orders.get(i);
+
+            long bstMean = 0, rbtMean = 0;
+            int bstHeight = 0, rbtHeight = 0;
+
+            for (int repetition = 0; repetition < ORDER_TEST_REPETITION; repetition++)
+            {
+                BinarySearchTree<String, Integer> bst = new BinarySearchTree<>();
+                RedBlackTree<String, Integer> rbt = new RedBlackTree<>();
+
+                bstMean += bstTime(order, bst);
+                bstHeight = bst.height();
+
+                rbtMean += rbtTime(order, rbt);
+                rbtHeight = rbt.height();
+            }
+
+            System.out.printf(
+                    "%s, %d, %d, %d, %d, %d\n",
+                    orderNames[i],
+                    bstMean / ORDER_TEST_REPETITION,
+                    rbtMean / ORDER_TEST_REPETITION,
+                    bstHeight,
+                    rbtHeight,
+                    order.size());
+        }
+    }
+
+    // the amount of times to repeat each test of a deep tree
+    private static final int DEEP_TEST_REPETITION = 5;
+
+    // tests the cost of building, searching, and walking a binary search
+    // tree as deep as it is large, from n hundred keys put in sorted order.
+    // times are the mean in nanoseconds per operation
+    private static void testDeepTree(int n)
+    {
+        int keyCount = n * 100;
+
+        System.out.println("Put, Get, Contains, Prefix Walk, Key Count");
+
+        long putTime = 0, getTime = 0, containsTime = 0, walkTime = 0;
+
+        // an accumulated sum keeps the work from being optimized away
+        long sum = 0;
+
+        for (int repetition = 0; repetition < DEEP_TEST_REPETITION; repetition++)
+        {
+            BinarySearchTree<Integer, Integer> bst = new BinarySearchTree<>();
+
+            // sorted keys put every new key below the last one
+            long start = System.nanoTime();
+            for (int key = 0; key < keyCount; key++)
+            {
+                bst.put(key, key);
+            }
+            putTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key = 0; key < keyCount; key++)
+            {
+                sum += bst.get(key);
+            }
+            getTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key = 0; key < keyCount; key++)
+            {
+                sum += bst.contains(key) ? 1 : 0;
+            }
+            containsTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sum += bst.prefixRepresentation(bst.root).length();
+            walkTime += System.nanoTime() - start;
+        }
+
+        long operations = (long)keyCount * DEEP_TEST_REPETITION;
+
+        System.out.printf(
+                "%d, %d, %d, %d, %d\n",
+                putTime / operations,
+                getTime / operations,
+                containsTime / operations,
+                walkTime / operations,
+                keyCount);
+
+        if (sum == 42)
+        {
+            System.out.println();
+        }
+    }
+
+    // returns the number of collections done by the young generation
+    // collectors so far
+    private static long youngCollections()
+    {
+        long count = 0;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            // the names of the young collectors of G1, Parallel, Serial, and
+            // generational ZGC
+            String name = gc.getName();
+            if (name.contains("Young")
+                    || name.contains("Scavenge")
+                    || name.equals("Copy")
+                    || name.contains("Minor"))
+            {
+                count += Math.max(gc.getCollectionCount(), 0);
+            }
+        }
+
+        return count;
+    }
+
+    // returns the bytes used on the heap after a full collection
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // tests the memory and collections of a binary search tree of nodes
+    // against one of pooled arrays, on n hundred random keys. the keys and
+    // values are created up front and shared, so only the trees are counted
+    private static void testPool(int n)
+    {
+        int keyCount = n * 100;
+
+        Integer[] keys = new Integer[keyCount];
+        Random random = new Random(0);
+        for (int i = 0; i < keyCount; i++)
+        {
+            keys[i] = random.nextInt();
+        }
+
+        System.out.println("Tree, Bytes per Entry, Young Collections, " +
+                "Put Time, Get Time, Key Count");
+
+        for (String tree : new String[] { "Binary Search Tree", "Pooled Binary Search Tree" })
+        {
+            boolean isPooled = tree.startsWith("Pooled");
+
+            long before = usedHeap();
+            long collections = youngCollections();
+
+            BinarySearchTree<Integer, Integer> bst = new BinarySearchTree<>();
+            PooledBinarySearchTree<Integer, Integer> pooled =
+                    new PooledBinarySearchTree<>();
+
+            long start = System.nanoTime();
+            for (Integer key : keys)
+            {
+                if (isPooled)
+                {
+                    pooled.put(key, key);
+                }
+                else
+                {
+                    bst.put(key, key);
+                }
+            }
+            long putTime = System.nanoTime() - start;
+
+            // an accumulated sum keeps the lookups from being optimized away
+            long sum = 0;
+
+            start = System.nanoTime();
+            for (Integer key : keys)
+            {
+                sum += isPooled
+                        ? pooled.get(key)
+                        : bst.get(key);
+            }
+            long getTime = System.nanoTime() - start;
+
+            collections = youngCollections() - collections;
+            long bytes = usedHeap() - before;
+
+            System.out.printf(
+                    "%s, %.1f, %d, %d, %d, %d\n",
+                    tree,
+                    (double)bytes / keyCount,
+                    collections,
+                    putTime / keyCount,
+                    getTime / keyCount,
+                    keyCount);
+
+            // keep both trees reachable until the heap has been measured
+            if (sum == 42 || bst.contains(0) && pooled.contains(0))
+            {
+                System.out.println();
+            }
+        }
+    }
+
     public static void main(String[] args) throws FileNotFoundException
     {
         // parses the number of hundreds of words to test for
         int n = Integer.parseInt(args[0]);
-        testSearches(n);
+
+        // compare the unbalanced and the balanced tree on different input
+        // orders if asked for, otherwise the symbol table and the tree
+        if (args.length > 1 && args[1].equals("--orders"))
+        {
+            testOrders(n);
+        }
+        // or the cost of very deep trees
+        else if (args.length > 1 && args[1].equals("--deep"))
+        {
+            testDeepTree(n);
+        }
+        // or the memory of a tree of nodes against a pooled one
+        else if (args.length > 1 && args[1].equals("--pool"))
+        {
+            testPool(n);
+        }
+        else
+        {
+            testSearches(n);
+        }
     }
 }
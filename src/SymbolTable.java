@@ -0,0 +1,53 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        SymbolTable is the interface shared by the symbol tables of this
+        project, so that code using a table doesn't have to pick one. Use
+        `SymbolTables.create` to get the table best suited for a workload.
+        Iterating over a table gives its keys; ordered tables give them in
+        ascending order, hash tables in no particular order.
+    Usage:
+        Implement the interface for a new symbol table, or use it as the type
+        of a table made by `SymbolTables`.
+ */
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public interface SymbolTable<TKey, TValue> extends Iterable<TKey>
+{
+    // returns the number of keys in the table
+    int size();
+
+    // adds the key and the associated value into the table, replacing the
+    // value of the key if it is already in the table
+    void put(TKey key, TValue value);
+
+    // returns the value associated with the key or throws a NoSuchElement
+    // exception
+    TValue get(TKey key);
+
+    // returns the value associated with the key, or `defaultValue` if there
+    // is no such key
+    TValue getOrDefault(TKey key, TValue defaultValue);
+
+    // returns true if an element associated with the given key exists,
+    // otherwise false
+    boolean contains(TKey key);
+
+    // associates `value` with the key if there is no value for it, otherwise
+    // associates the result of `remapping` on the old value and `value`.
+    // returns the new value
+    TValue merge(
+            TKey key,
+            TValue value,
+            BiFunction<? super TValue, ? super TValue, ? extends TValue> remapping);
+
+    // returns the value associated with the key, associating the result of
+    // `mapping` on the key with it first if there is no value for it
+    TValue computeIfAbsent(
+            TKey key,
+            Function<? super TKey, ? extends TValue> mapping);
+}
@@ -0,0 +1,993 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        SymbolTableBenchmark measures the time per operation of the symbol
+        tables of `SymbolTables` on put, get, contains, and iteration, for
+        every combination of table, number of keys, key distribution, and
+        hit ratio asked for, and of `TextUtility.createIndexTable` on a file
+        for every table.
+        Every combination is run in forked JVMs of its own, so that the JIT
+        compiling one table's code doesn't slow down or speed up another's.
+        In each fork the operation is first run for a number of untimed
+        warm-up iterations, then for the timed measurement iterations. An
+        iteration repeats the operation over its keys until it has run for
+        at least the iteration time, and counts as the mean time per
+        operation. Everything read from the tables is summed into a sink
+        that is written to a volatile field, so that no lookup can be
+        optimized away.
+        The key distributions are:
+            uniform:    every key as likely as every other
+            zipf:       the k:th most common key 1/k as likely as the most
+                        common one, like the words of a text
+            sorted:     the keys in ascending order, also put in ascending
+                        order, which makes `BinarySearchTree` a list
+        The hit ratio is the share of gets and contains on keys that are in
+        the table; the others look up keys that are not.
+        Next to the time, every iteration measures the bytes allocated per
+        operation with an `AllocationMeter`, and the collection pauses of
+        all measurement iterations are summed up as their number, total and
+        longest time, and share of the measured time, so that a change that
+        allocates more shows up next to its time.
+        The scores are printed, and written as CSV or JSON, one line or
+        object per combination in a fixed order, so that the results of two
+        builds can be compared with diff.
+    Usage:
+        Run the main method with any of the following options, defaults in
+        parentheses:
+            --backends      hash,tree,array     (hash,tree,array; or balanced,
+                                                 concurrent, pooled)
+            --operations    put,get,contains,iterate
+            --sizes         number of keys      (1000,10000)
+            --distributions uniform,zipf,sorted
+            --hit-ratios    0.0 to 1.0          (1.0,0.5), gets and contains
+            --index         a file to index with every table (none); the
+                            time and bytes are per indexed word
+            --forks         (2), 0 runs everything in this JVM
+            --warm-up       iterations          (3)
+            --iterations    timed iterations    (5)
+            --time          milliseconds per iteration (200)
+            --format        csv or json         (csv)
+            --out           file to write the results to (none)
+        e.g. "--backends hash,array --sizes 100000 --format json --out a.json"
+        The forks are started with the same class path and JVM options as
+        this JVM.
+        Requires `AllocationMeter`, `PostingList`, `SymbolTable`,
+        `SymbolTables`, and `TextUtility` to work.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+public class SymbolTableBenchmark
+{
+    public enum Operation
+    {
+        PUT,
+        GET,
+        CONTAINS,
+        ITERATE,
+        INDEX
+    }
+
+    public enum Distribution
+    {
+        UNIFORM,
+        ZIPF,
+        SORTED
+    }
+
+    // the seed of the keys and their order, the same in every fork so that
+    // every fork measures the same thing
+    private static final long SEED = 0x5EED;
+
+    // the prefix of the lines forks print their iterations on
+    private static final String RESULT_PREFIX = "#result ";
+
+    // one combination of the parameters to measure
+    private static class Benchmark
+    {
+        public final Operation operation;
+        public final SymbolTables.Backend backend;
+        public final int size;
+        public final Distribution distribution;
+        public final double hitRatio;
+
+        // the file to index, only for INDEX, which has no distribution
+        public final File file;
+
+        public Benchmark(
+                Operation operation,
+                SymbolTables.Backend backend,
+                int size,
+                Distribution distribution,
+                double hitRatio,
+                File file)
+        {
+            this.operation = operation;
+            this.backend = backend;
+            this.size = size;
+            this.distribution = distribution;
+            this.hitRatio = hitRatio;
+            this.file = file;
+        }
+
+        // the distribution, or the name of the indexed file
+        public String input()
+        {
+            return file != null
+                    ? file.getName()
+                    : distribution.name().toLowerCase();
+        }
+
+        // the arguments that make a fork run this benchmark
+        public List<String> arguments()
+        {
+            return Arrays.asList(
+                    operation.name(),
+                    backend.name(),
+                    Integer.toString(size),
+                    file != null ? "-" : distribution.name(),
+                    Double.toString(hitRatio),
+                    file != null ? file.getPath() : "-");
+        }
+
+        public static Benchmark parse(String[] args, int from)
+        {
+            return new Benchmark(
+                    Operation.valueOf(args[from]),
+                    SymbolTables.Backend.valueOf(args[from + 1]),
+                    Integer.parseInt(args[from + 2]),
+                    args[from + 3].equals("-")
+                            ? null
+                            : Distribution.valueOf(args[from + 3]),
+                    Double.parseDouble(args[from + 4]),
+                    args[from + 5].equals("-")
+                            ? null
+                            : new File(args[from + 5]));
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(
+                    Locale.ROOT,
+                    "%s %s %d %s %.2f",
+                    operation.name().toLowerCase(),
+                    backend.name().toLowerCase(),
+                    size,
+                    input(),
+                    hitRatio);
+        }
+    }
+
+    // the keys and the order of the operations of a benchmark
+    private static class Workload
+    {
+        // the keys of the table, in the order they are put
+        public final String[] keys;
+
+        // the keys looked up by gets and contains, hits and misses mixed
+        public final String[] lookups;
+
+        public Workload(Benchmark benchmark)
+        {
+            Random random = new Random(SEED);
+
+            // twice as many distinct keys as the table holds, the second
+            // half are the keys that miss
+            String[] distinct = randomWords(2 * benchmark.size, random);
+            String[] present = Arrays.copyOf(distinct, benchmark.size);
+            String[] absent = Arrays.copyOfRange(
+                    distinct,
+                    benchmark.size,
+                    distinct.length);
+
+            if (benchmark.distribution == Distribution.SORTED)
+            {
+                Arrays.sort(present);
+                Arrays.sort(absent);
+            }
+
+            int[] order = order(
+                    benchmark.distribution,
+                    benchmark.size,
+                    benchmark.size,
+                    random);
+
+            if (benchmark.operation == Operation.PUT)
+            {
+                // the puts follow the distribution, so zipf puts the common
+                // keys again and again like counting words
+                keys = new String[benchmark.size];
+                for (int i = 0; i < keys.length; i++)
+                {
+                    keys[i] = present[order[i]];
+                }
+            }
+            else
+            {
+                keys = present;
+            }
+
+            lookups = new String[benchmark.size];
+            for (int i = 0; i < lookups.length; i++)
+            {
+                lookups[i] = random.nextDouble() < benchmark.hitRatio
+                        ? present[order[i]]
+                        : absent[order[i]];
+            }
+        }
+    }
+
+    // returns `count` distinct words of 3 to 10 lower case letters
+    static String[] randomWords(int count, Random random)
+    {
+        Set<String> seen = new HashSet<>();
+        String[] words = new String[count];
+
+        for (int i = 0; i < count; )
+        {
+            char[] word = new char[3 + random.nextInt(8)];
+            for (int j = 0; j < word.length; j++)
+            {
+                word[j] = (char)('a' + random.nextInt(26));
+            }
+
+            String s = new String(word);
+            if (seen.add(s))
+            {
+                words[i++] = s;
+            }
+        }
+
+        return words;
+    }
+
+    // returns `count` indices below `bound` following the distribution,
+    // sorted ones counting up and starting over at `bound`
+    static int[] order(
+            Distribution distribution,
+            int count,
+            int bound,
+            Random random)
+    {
+        int[] order = new int[count];
+
+        switch (distribution)
+        {
+            case SORTED:
+                for (int i = 0; i < count; i++)
+                {
+                    order[i] = i % bound;
+                }
+                break;
+
+            case ZIPF:
+                // the cumulative probabilities of the ranks, the k:th
+                // rank weighing 1/k
+                double[] cumulative = new double[bound];
+                double sum = 0;
+                for (int k = 0; k < bound; k++)
+                {
+                    sum += 1.0 / (k + 1);
+                    cumulative[k] = sum;
+                }
+
+                for (int i = 0; i < count; i++)
+                {
+                    int rank = Arrays.binarySearch(
+                            cumulative,
+                            random.nextDouble() * sum);
+
+                    // the rank is the first cumulative probability
+                    // above the drawn number
+                    order[i] = Math.min(
+                            rank < 0 ? -rank - 1 : rank,
+                            bound - 1);
+                }
+                break;
+
+            case UNIFORM:
+            default:
+                for (int i = 0; i < count; i++)
+                {
+                    order[i] = random.nextInt(bound);
+                }
+                break;
+        }
+
+        return order;
+    }
+
+    // written with the sum of everything read from the tables, so that the
+    // JIT can't drop the reads
+    private static volatile long sink;
+
+    // returns a table of the benchmark's backend holding all the keys
+    private static SymbolTable<String, Integer> fill(
+            Benchmark benchmark,
+            String[] keys)
+    {
+        SymbolTable<String, Integer> table =
+                SymbolTables.create(benchmark.backend, keys.length);
+
+        for (int i = 0; i < keys.length; i++)
+        {
+            table.put(keys[i], i);
+        }
+
+        return table;
+    }
+
+    // runs the operation of the benchmark once for every key, or every
+    // lookup, and returns the number of operations run. `table` is the
+    // filled table for everything but puts, which fill a new table
+    private static int invoke(
+            Benchmark benchmark,
+            Workload workload,
+            SymbolTable<String, Integer> table)
+    {
+        long sum = 0;
+        int operations;
+
+        switch (benchmark.operation)
+        {
+            case PUT:
+                table = SymbolTables.create(benchmark.backend, workload.keys.length);
+                for (String key : workload.keys)
+                {
+                    table.put(key, key.length());
+                }
+                sum += table.size();
+                operations = workload.keys.length;
+                break;
+
+            case GET:
+                for (String key : workload.lookups)
+                {
+                    sum += table.getOrDefault(key, -1);
+                }
+                operations = workload.lookups.length;
+                break;
+
+            case CONTAINS:
+                for (String key : workload.lookups)
+                {
+                    sum += table.contains(key) ? 1 : 0;
+                }
+                operations = workload.lookups.length;
+                break;
+
+            case ITERATE:
+            default:
+                for (String key : table)
+                {
+                    sum += key.length();
+                }
+                operations = table.size();
+                break;
+        }
+
+        sink += sum;
+        return operations;
+    }
+
+    // indexes the file and returns the number of words indexed
+    private static int index(File file)
+    {
+        try (Scanner in = new Scanner(file))
+        {
+            SymbolTable<String, PostingList> indices =
+                    TextUtility.createIndexTable(in);
+
+            // counting the words takes a lookup per distinct word, little
+            // next to indexing every word
+            int words = 0;
+            for (String word : indices)
+            {
+                words += indices.get(word).size();
+            }
+
+            return words;
+        }
+        catch (FileNotFoundException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the time and allocations of the measurement iterations of a benchmark
+    // in one JVM
+    private static class Measurement
+    {
+        public final double[] nanosPerOperation;
+        public final double[] bytesPerOperation;
+
+        // the collection pauses during all measurement iterations, and the
+        // time measured
+        public long pauses;
+        public long pauseMillis;
+        public long longestPauseMillis;
+        public long elapsed;
+
+        public Measurement(int iterations)
+        {
+            nanosPerOperation = new double[iterations];
+            bytesPerOperation = new double[iterations];
+        }
+
+        // returns the measurement as a single line,
+        // "{ns, ...};{bytes, ...};{pauses},{pause ms},{longest ms},{elapsed}"
+        public String format()
+        {
+            StringBuilder sb = new StringBuilder();
+
+            for (int i = 0; i < nanosPerOperation.length; i++)
+            {
+                sb.append(i > 0 ? "," : "").append(nanosPerOperation[i]);
+            }
+            sb.append(';');
+            for (int i = 0; i < bytesPerOperation.length; i++)
+            {
+                sb.append(i > 0 ? "," : "").append(bytesPerOperation[i]);
+            }
+
+            return sb.append(';')
+                    .append(pauses).append(',')
+                    .append(pauseMillis).append(',')
+                    .append(longestPauseMillis).append(',')
+                    .append(elapsed)
+                    .toString();
+        }
+
+        // returns the measurement of a line made by `format`
+        public static Measurement parse(String line)
+        {
+            String[] parts = line.split(";");
+            double[] nanos = Arrays.stream(parts[0].split(","))
+                    .mapToDouble(Double::parseDouble)
+                    .toArray();
+            double[] bytes = Arrays.stream(parts[1].split(","))
+                    .mapToDouble(Double::parseDouble)
+                    .toArray();
+            String[] pauses = parts[2].split(",");
+
+            Measurement measurement = new Measurement(nanos.length);
+            System.arraycopy(nanos, 0, measurement.nanosPerOperation, 0, nanos.length);
+            System.arraycopy(bytes, 0, measurement.bytesPerOperation, 0, bytes.length);
+            measurement.pauses = Long.parseLong(pauses[0]);
+            measurement.pauseMillis = Long.parseLong(pauses[1]);
+            measurement.longestPauseMillis = Long.parseLong(pauses[2]);
+            measurement.elapsed = Long.parseLong(pauses[3]);
+
+            return measurement;
+        }
+    }
+
+    // runs the invocation for at least `time` nanoseconds and, unless it is
+    // a warm-up without a measurement, records the mean time and bytes per
+    // operation as the i:th iteration of the measurement
+    private static void iteration(
+            IntSupplier invocation,
+            long time,
+            AllocationMeter meter,
+            Measurement measurement,
+            int i)
+    {
+        long operations = 0;
+        long bytes = meter.allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+
+        do
+        {
+            operations += invocation.getAsInt();
+            elapsed = System.nanoTime() - start;
+        }
+        while (elapsed < time);
+
+        bytes = meter.allocatedBytes() - bytes;
+
+        if (measurement != null)
+        {
+            measurement.nanosPerOperation[i] = (double)elapsed / operations;
+            measurement.bytesPerOperation[i] = (double)bytes / operations;
+            measurement.elapsed += elapsed;
+        }
+    }
+
+    // runs the warm-up and the measurement iterations of the benchmark in
+    // this JVM and returns the measurement
+    private static Measurement measure(
+            Benchmark benchmark,
+            int warmUp,
+            int iterations,
+            long time) throws InterruptedException
+    {
+        IntSupplier invocation;
+        String backend = System.getProperty("symboltable.backend");
+
+        if (benchmark.operation == Operation.INDEX)
+        {
+            // `TextUtility` gets its table from `SymbolTables`, which is
+            // told to use the backend of the benchmark
+            System.setProperty("symboltable.backend", benchmark.backend.name());
+            invocation = () -> index(benchmark.file);
+        }
+        else
+        {
+            Workload workload = new Workload(benchmark);
+            SymbolTable<String, Integer> table =
+                    benchmark.operation == Operation.PUT
+                            ? null
+                            : fill(benchmark, workload.keys);
+
+            invocation = () -> invoke(benchmark, workload, table);
+        }
+
+        Measurement measurement = new Measurement(iterations);
+
+        try (AllocationMeter meter = new AllocationMeter())
+        {
+            for (int i = 0; i < warmUp; i++)
+            {
+                iteration(invocation, time, meter, null, i);
+            }
+
+            // only the pauses of the measurement iterations are counted
+            meter.reset();
+
+            for (int i = 0; i < iterations; i++)
+            {
+                iteration(invocation, time, meter, measurement, i);
+            }
+
+            // give the collectors time to report the last pauses
+            Thread.sleep(100);
+
+            measurement.pauses = meter.pauses();
+            measurement.pauseMillis = meter.pauseMillis();
+            measurement.longestPauseMillis = meter.longestPauseMillis();
+        }
+        finally
+        {
+            if (backend == null)
+            {
+                System.clearProperty("symboltable.backend");
+            }
+            else
+            {
+                System.setProperty("symboltable.backend", backend);
+            }
+        }
+
+        return measurement;
+    }
+
+    // runs the benchmark in a new JVM and returns its measurement
+    private static Measurement fork(
+            Benchmark benchmark,
+            int warmUp,
+            int iterations,
+            long time) throws IOException, InterruptedException
+    {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home")
+                + File.separator + "bin"
+                + File.separator + "java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SymbolTableBenchmark.class.getName());
+        command.add("--fork");
+        command.add(Integer.toString(warmUp));
+        command.add(Integer.toString(iterations));
+        command.add(Long.toString(time));
+        command.addAll(benchmark.arguments());
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        Measurement measurement = null;
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(
+                        process.getInputStream(),
+                        StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = out.readLine()) != null)
+            {
+                if (line.startsWith(RESULT_PREFIX))
+                {
+                    measurement = Measurement.parse(
+                            line.substring(RESULT_PREFIX.length()));
+                }
+            }
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || measurement == null)
+        {
+            throw new IllegalStateException(
+                    String.format(
+                            "the fork of {%s} failed with exit code %d",
+                            benchmark,
+                            exitCode));
+        }
+
+        return measurement;
+    }
+
+    // the result of a benchmark over all forks
+    private static class Result
+    {
+        public final Benchmark benchmark;
+        public final int samples;
+        public final double mean;
+        public final double deviation;
+        public final double min;
+        public final double bytesPerOperation;
+        public final long pauses;
+        public final long pauseMillis;
+        public final long longestPauseMillis;
+
+        // the share of the measured time spent in collection pauses, in
+        // percent
+        public final double pausePercent;
+
+        public Result(Benchmark benchmark, List<Measurement> measurements)
+        {
+            this.benchmark = benchmark;
+
+            int samples = 0;
+            double sum = 0;
+            double min = Double.MAX_VALUE;
+            double bytes = 0;
+            long pauses = 0;
+            long pauseMillis = 0;
+            long longestPauseMillis = 0;
+            long elapsed = 0;
+
+            for (Measurement measurement : measurements)
+            {
+                for (int i = 0; i < measurement.nanosPerOperation.length; i++)
+                {
+                    samples++;
+                    sum += measurement.nanosPerOperation[i];
+                    min = Math.min(min, measurement.nanosPerOperation[i]);
+                    bytes += measurement.bytesPerOperation[i];
+                }
+
+                pauses += measurement.pauses;
+                pauseMillis += measurement.pauseMillis;
+                longestPauseMillis = Math.max(
+                        longestPauseMillis,
+                        measurement.longestPauseMillis);
+                elapsed += measurement.elapsed;
+            }
+
+            double squares = 0;
+            for (Measurement measurement : measurements)
+            {
+                for (double score : measurement.nanosPerOperation)
+                {
+                    squares += (score - sum / samples) * (score - sum / samples);
+                }
+            }
+
+            this.samples = samples;
+            this.mean = sum / samples;
+            this.deviation = samples > 1
+                    ? Math.sqrt(squares / (samples - 1))
+                    : 0;
+            this.min = min;
+            this.bytesPerOperation = bytes / samples;
+            this.pauses = pauses;
+            this.pauseMillis = pauseMillis;
+            this.longestPauseMillis = longestPauseMillis;
+            this.pausePercent = elapsed > 0
+                    ? 100.0 * pauseMillis * 1_000_000 / elapsed
+                    : 0;
+        }
+    }
+
+    private static final String CSV_HEADER =
+            "operation,backend,size,distribution,hit_ratio,samples,"
+            + "mean_ns_per_op,stddev_ns_per_op,min_ns_per_op,bytes_per_op,"
+            + "gc_pauses,gc_pause_ms,gc_longest_pause_ms,gc_percent";
+
+    private static String toCsv(Result result)
+    {
+        Benchmark benchmark = result.benchmark;
+
+        return String.format(
+                Locale.ROOT,
+                "%s,%s,%d,%s,%.2f,%d,%.3f,%.3f,%.3f,%.1f,%d,%d,%d,%.2f",
+                benchmark.operation.name().toLowerCase(),
+                benchmark.backend.name().toLowerCase(),
+                benchmark.size,
+                benchmark.input(),
+                benchmark.hitRatio,
+                result.samples,
+                result.mean,
+                result.deviation,
+                result.min,
+                result.bytesPerOperation,
+                result.pauses,
+                result.pauseMillis,
+                result.longestPauseMillis,
+                result.pausePercent);
+    }
+
+    private static String toJson(Result result)
+    {
+        Benchmark benchmark = result.benchmark;
+
+        return String.format(
+                Locale.ROOT,
+                "{\"operation\": \"%s\", \"backend\": \"%s\", \"size\": %d, "
+                + "\"distribution\": \"%s\", \"hitRatio\": %.2f, "
+                + "\"samples\": %d, \"meanNsPerOp\": %.3f, "
+                + "\"stddevNsPerOp\": %.3f, \"minNsPerOp\": %.3f, "
+                + "\"bytesPerOp\": %.1f, \"gcPauses\": %d, "
+                + "\"gcPauseMs\": %d, \"gcLongestPauseMs\": %d, "
+                + "\"gcPercent\": %.2f}",
+                benchmark.operation.name().toLowerCase(),
+                benchmark.backend.name().toLowerCase(),
+                benchmark.size,
+                benchmark.input(),
+                benchmark.hitRatio,
+                result.samples,
+                result.mean,
+                result.deviation,
+                result.min,
+                result.bytesPerOperation,
+                result.pauses,
+                result.pauseMillis,
+                result.longestPauseMillis,
+                result.pausePercent);
+    }
+
+    // writes the results to the file in the given format
+    private static void write(List<Result> results, String format, File file)
+            throws IOException
+    {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8))
+        {
+            if (format.equals("json"))
+            {
+                out.println("[");
+                for (int i = 0; i < results.size(); i++)
+                {
+                    out.print("    ");
+                    out.print(toJson(results.get(i)));
+                    out.println(i + 1 < results.size() ? "," : "");
+                }
+                out.println("]");
+            }
+            else
+            {
+                out.println(CSV_HEADER);
+                for (Result result : results)
+                {
+                    out.println(toCsv(result));
+                }
+            }
+        }
+    }
+
+    // returns the values of a comma separated option parsed by `parse`
+    private static <T> List<T> list(
+            String value,
+            Function<String, T> parse)
+    {
+        List<T> values = new ArrayList<>();
+
+        for (String part : value.split(","))
+        {
+            values.add(parse.apply(part.trim()));
+        }
+
+        return values;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        // a fork runs a single benchmark and prints its measurement on one
+        // line
+        if (args.length > 0 && args[0].equals("--fork"))
+        {
+            Measurement measurement = measure(
+                    Benchmark.parse(args, 4),
+                    Integer.parseInt(args[1]),
+                    Integer.parseInt(args[2]),
+                    Long.parseLong(args[3]));
+
+            System.out.println(RESULT_PREFIX + measurement.format());
+            return;
+        }
+
+        List<SymbolTables.Backend> backends = list(
+                "hash,tree,array",
+                s -> SymbolTables.Backend.valueOf(s.toUpperCase()));
+        List<Operation> operations = list(
+                "put,get,contains,iterate",
+                s -> Operation.valueOf(s.toUpperCase()));
+        List<Integer> sizes = list("1000,10000", Integer::parseInt);
+        List<Distribution> distributions = list(
+                "uniform,zipf,sorted",
+                s -> Distribution.valueOf(s.toUpperCase()));
+        List<Double> hitRatios = list("1.0,0.5", Double::parseDouble);
+        int forks = 2;
+        int warmUp = 3;
+        int iterations = 5;
+        long time = 200;
+        String format = "csv";
+        File out = null;
+        File index = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            String value = args[i + 1];
+
+            switch (args[i])
+            {
+                case "--backends":
+                    backends = list(
+                            value,
+                            s -> SymbolTables.Backend.valueOf(s.toUpperCase()));
+                    break;
+                case "--operations":
+                    operations = list(
+                            value,
+                            s -> Operation.valueOf(s.toUpperCase()));
+                    break;
+                case "--sizes":
+                    sizes = list(value, Integer::parseInt);
+                    break;
+                case "--distributions":
+                    distributions = list(
+                            value,
+                            s -> Distribution.valueOf(s.toUpperCase()));
+                    break;
+                case "--hit-ratios":
+                    hitRatios = list(value, Double::parseDouble);
+                    break;
+                case "--forks":
+                    forks = Integer.parseInt(value);
+                    break;
+                case "--warm-up":
+                    warmUp = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    time = Long.parseLong(value);
+                    break;
+                case "--format":
+                    format = value.toLowerCase();
+                    break;
+                case "--out":
+                    out = new File(value);
+                    break;
+                case "--index":
+                    index = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(
+                            "unknown option " + args[i]);
+            }
+        }
+
+        // every combination, the hit ratios only for the lookups as puts and
+        // iteration only touch keys in the table
+        List<Benchmark> benchmarks = new ArrayList<>();
+        for (Operation operation : operations)
+        {
+            // indexing needs a file rather than generated keys
+            if (operation == Operation.INDEX)
+            {
+                continue;
+            }
+
+            List<Double> ratios = operation == Operation.GET
+                    || operation == Operation.CONTAINS
+                    ? hitRatios
+                    : List.of(1.0);
+
+            for (SymbolTables.Backend backend : backends)
+            {
+                for (int size : sizes)
+                {
+                    for (Distribution distribution : distributions)
+                    {
+                        for (double hitRatio : ratios)
+                        {
+                            benchmarks.add(new Benchmark(
+                                    operation,
+                                    backend,
+                                    size,
+                                    distribution,
+                                    hitRatio,
+                                    null));
+                        }
+                    }
+                }
+            }
+        }
+
+        // indexing the file with every table, the size being the number of
+        // words indexed
+        if (index != null)
+        {
+            int words = index(index);
+
+            for (SymbolTables.Backend backend : backends)
+            {
+                benchmarks.add(new Benchmark(
+                        Operation.INDEX,
+                        backend,
+                        words,
+                        null,
+                        1.0,
+                        index));
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        System.out.println(CSV_HEADER);
+
+        for (Benchmark benchmark : benchmarks)
+        {
+            List<Measurement> measurements = new ArrayList<>();
+
+            if (forks == 0)
+            {
+                measurements.add(measure(
+                        benchmark,
+                        warmUp,
+                        iterations,
+                        time * 1_000_000));
+            }
+
+            for (int i = 0; i < forks; i++)
+            {
+                measurements.add(fork(
+                        benchmark,
+                        warmUp,
+                        iterations,
+                        time * 1_000_000));
+            }
+
+            Result result = new Result(benchmark, measurements);
+            results.add(result);
+            System.out.println(toCsv(result));
+        }
+
+        if (out != null)
+        {
+            write(results, format, out);
+        }
+    }
+}
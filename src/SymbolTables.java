@@ -0,0 +1,185 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        SymbolTables picks the symbol table best suited for a workload, so
+        that code only states how it uses its table and the table behind it
+        can be changed without changing that code.
+        A workload is described by the expected number of keys, whether the
+        keys have to be walked in order, the number of reads per write, and
+        the type of the keys:
+            unordered:                      `HashTable`, sized for the
+                                            expected number of keys
+            ordered, mostly read or small:  `AssociativeArraySymbolTable`,
+                                            compact blocks searched by
+                                            binary search. A table of at
+                                            most one block is never slower
+                                            to write than a tree, since a
+                                            write moves at most a block
+            ordered, often written:         `RedBlackTree`, which stays
+                                            balanced whatever order the keys
+                                            are put in
+        The type of the keys isn't used to pick a table, only to check that
+        an ordered table is given keys that are Comparable; keys that aren't
+        can't be walked in order by any of the tables.
+        `ConcurrentHashTable` and `PooledBinarySearchTree` are never picked
+        for a workload, since a workload doesn't say whether it is written
+        from many threads or how much the nodes of a tree cost, but they can
+        be asked for by their backend like every other table.
+        The system property "symboltable.backend" overrides the choice for
+        every table, with one of "hash", "array", "tree" (the unbalanced
+        `BinarySearchTree`), "balanced", "concurrent", or "pooled", so that
+        each tool can be run on every table to compare them.
+    Usage:
+        Call `create` with a `Workload`, or with a `Backend` to get a given
+        table whatever the workload, or run the main method with a
+        workload to see which table would be picked for it:
+        "{expected size} {ordered: true/false} {reads per write} {key class}"
+        Requires `AssociativeArraySymbolTable`, `BinarySearchTree`,
+        `ConcurrentHashTable`, `HashTable`, `PooledBinarySearchTree`,
+        `RedBlackTree`, and `SymbolTable` to work.
+ */
+
+public class SymbolTables
+{
+    // the tables that can be picked
+    public enum Backend
+    {
+        HASH,
+        ARRAY,
+        TREE,
+        BALANCED,
+        CONCURRENT,
+        POOLED
+    }
+
+    // the number of reads per write from which an ordered workload is
+    // counted as mostly read
+    private static final double READ_HEAVY = 8;
+
+    // the number of keys up to which an ordered table fits in a single block
+    // of `AssociativeArraySymbolTable` whatever its reads per write
+    private static final int SMALL = AssociativeArraySymbolTable.BLOCK_CAPACITY;
+
+    // a description of how a table is going to be used
+    public static class Workload
+    {
+        public final int expectedSize;
+        public final boolean ordered;
+        public final double readsPerWrite;
+        public final Class<?> keyType;
+
+        public Workload(
+                int expectedSize,
+                boolean ordered,
+                double readsPerWrite,
+                Class<?> keyType)
+        {
+            this.expectedSize = expectedSize;
+            this.ordered = ordered;
+            this.readsPerWrite = readsPerWrite;
+            this.keyType = keyType;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(
+                    "{size: %d, ordered: %b, reads per write: %s, keys: %s}",
+                    expectedSize,
+                    ordered,
+                    readsPerWrite,
+                    keyType.getSimpleName());
+        }
+    }
+
+    private SymbolTables() {}
+
+    // returns the table to use for the workload, the one given by the
+    // system property "symboltable.backend" if it is set
+    public static Backend choose(Workload workload)
+    {
+        String override = System.getProperty("symboltable.backend");
+
+        Backend backend;
+        if (override != null)
+        {
+            backend = Backend.valueOf(override.toUpperCase());
+        }
+        else if (!workload.ordered)
+        {
+            backend = Backend.HASH;
+        }
+        else if (workload.readsPerWrite >= READ_HEAVY
+                || workload.expectedSize <= SMALL)
+        {
+            backend = Backend.ARRAY;
+        }
+        else
+        {
+            backend = Backend.BALANCED;
+        }
+
+        // only hash tables can hold keys that cannot be compared
+        if (backend != Backend.HASH
+                && backend != Backend.CONCURRENT
+                && !Comparable.class.isAssignableFrom(workload.keyType))
+        {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%s needs Comparable keys, not %s",
+                            backend,
+                            workload.keyType.getName()));
+        }
+
+        return backend;
+    }
+
+    // returns an empty table suited for the workload. the keys put into the
+    // table must be of the key type of the workload
+    public static <TKey, TValue> SymbolTable<TKey, TValue> create(Workload workload)
+    {
+        return create(choose(workload), workload.expectedSize);
+    }
+
+    // returns an empty table of the given backend, a hash table sized for
+    // `expectedSize` keys. keys of ordered tables must be Comparable
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <TKey, TValue> SymbolTable<TKey, TValue> create(
+            Backend backend,
+            int expectedSize)
+    {
+        switch (backend)
+        {
+            case ARRAY:
+                return new AssociativeArraySymbolTable();
+            case TREE:
+                return new BinarySearchTree();
+            case BALANCED:
+                return new RedBlackTree();
+            case POOLED:
+                return new PooledBinarySearchTree();
+            case CONCURRENT:
+                return ConcurrentHashTable.withExpectedSize(expectedSize);
+            case HASH:
+            default:
+                return HashTable.withExpectedSize(expectedSize);
+        }
+    }
+
+    // test method, prints the table picked for the given workload
+    public static void main(String[] args) throws ClassNotFoundException
+    {
+        Workload workload = new Workload(
+                Integer.parseInt(args[0]),
+                Boolean.parseBoolean(args[1]),
+                Double.parseDouble(args[2]),
+                Class.forName(args[3]));
+
+        System.out.printf(
+                "%s: %s\n",
+                workload,
+                choose(workload));
+    }
+}
@@ -0,0 +1,259 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        TextFilter filters UTF-8 text from all characters that aren't
+        alphabetical, blank, or newline by replacing them with a blank, the
+        same as `c/filter_text.c` does for ASCII text.
+        The text is read and written in large blocks. ASCII bytes are
+        filtered in place through a lookup table; only bytes of multibyte
+        characters are decoded, so that alphabetical characters outside of
+        ASCII are kept whole and every other character becomes one blank.
+        `create()` picks `VectorTextFilter` instead when the Vector API is
+        available.
+    Usage:
+        Import the class to filter channels or streams, or run the main
+        method and pipe in the text to filter.
+        `VectorTextFilter` is in `src-vector/` since it only compiles with
+        the Vector API; this class compiles without it and falls back to
+        itself when `VectorTextFilter` isn't on the class path.
+ */
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+public class TextFilter
+{
+    // the number of bytes read and written at a time
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    // the byte written for each ASCII byte; the byte itself for letters,
+    // blank, and newline, otherwise a blank
+    static final byte[] ASCII_TABLE = new byte[128];
+
+    static
+    {
+        for (int b = 0; b < ASCII_TABLE.length; b++)
+        {
+            boolean isAllowed =
+                    (b >= 'a' && b <= 'z') ||
+                            (b >= 'A' && b <= 'Z') ||
+                            b == ' ' ||
+                            b == '\n';
+
+            ASCII_TABLE[b] = isAllowed
+                    ? (byte)b
+                    : (byte)' ';
+        }
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+
+    // the number of bytes of the block consumed by the last call to
+    // `filterBlock` or `filterMultibyte`
+    int consumed;
+
+    // returns the number of bytes of the UTF-8 sequence started by the lead
+    // byte, or 0 if the byte cannot start a sequence
+    private static int sequenceLength(byte lead)
+    {
+        if ((lead & 0xE0) == 0xC0)
+        {
+            return 2;
+        }
+        else if ((lead & 0xF0) == 0xE0)
+        {
+            return 3;
+        }
+        else if ((lead & 0xF8) == 0xF0)
+        {
+            return 4;
+        }
+
+        return 0;
+    }
+
+    // filters the multibyte character starting at `bytes[read]` in place,
+    // writing it to `bytes[write]`. returns the number of bytes written and
+    // sets `consumed` to the number of bytes read, which is 0 if the
+    // character continues past `length` and more input may follow
+    int filterMultibyte(
+            byte[] bytes,
+            int read,
+            int write,
+            int length,
+            boolean endOfInput)
+    {
+        int sequenceLength = sequenceLength(bytes[read]);
+
+        // the rest of the character is in the next block
+        if (sequenceLength > 0 && read + sequenceLength > length && !endOfInput)
+        {
+            consumed = 0;
+            return 0;
+        }
+
+        // invalid or cut off sequences are replaced one byte at a time
+        if (sequenceLength == 0 || read + sequenceLength > length)
+        {
+            bytes[write] = ' ';
+            consumed = 1;
+            return 1;
+        }
+
+        // decode the code point, checking that every following byte is a
+        // continuation byte
+        int codePoint = bytes[read] & (0x7F >> sequenceLength);
+        for (int i = 1; i < sequenceLength; i++)
+        {
+            byte b = bytes[read + i];
+
+            if ((b & 0xC0) != 0x80)
+            {
+                bytes[write] = ' ';
+                consumed = 1;
+                return 1;
+            }
+
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        consumed = sequenceLength;
+
+        // alphabetical characters are kept as they are, anything else is one
+        // blank
+        if (Character.isAlphabetic(codePoint))
+        {
+            System.arraycopy(bytes, read, bytes, write, sequenceLength);
+            return sequenceLength;
+        }
+
+        bytes[write] = ' ';
+        return 1;
+    }
+
+    // filters `bytes[0, length)` in place and returns the number of filtered
+    // bytes at the start of the array. `consumed` is set to the number of
+    // input bytes used, which is less than `length` if the block ends in
+    // the middle of a character and more input may follow
+    int filterBlock(byte[] bytes, int length, boolean endOfInput)
+    {
+        int read = 0;
+        int write = 0;
+
+        while (read < length)
+        {
+            byte b = bytes[read];
+
+            // ASCII, the common case
+            if (b >= 0)
+            {
+                bytes[write++] = ASCII_TABLE[b];
+                read++;
+                continue;
+            }
+
+            int written = filterMultibyte(bytes, read, write, length, endOfInput);
+
+            // the character continues in the next block
+            if (consumed == 0)
+            {
+                break;
+            }
+
+            read += consumed;
+            write += written;
+        }
+
+        consumed = read;
+        return write;
+    }
+
+    // returns the fastest filter available; the vectorized filter if the
+    // jdk.incubator.vector module has been added to the JVM, unless the
+    // system property "textfilter.vector" is "false", otherwise this one
+    public static TextFilter create()
+    {
+        boolean vectorEnabled = !"false".equals(
+                System.getProperty("textfilter.vector"));
+        boolean vectorAvailable = ModuleLayer
+                .boot()
+                .findModule("jdk.incubator.vector")
+                .isPresent();
+
+        if (vectorEnabled && vectorAvailable)
+        {
+            // the vectorized filter is only loaded by name, so this class
+            // still works when it cannot be linked
+            try
+            {
+                return (TextFilter)Class
+                        .forName("VectorTextFilter")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError e)
+            {
+                return new TextFilter();
+            }
+        }
+
+        return new TextFilter();
+    }
+
+    // filters everything from `in` to `out` and returns the number of bytes
+    // read
+    public long filter(ReadableByteChannel in, WritableByteChannel out)
+            throws IOException
+    {
+        byte[] bytes = buffer.array();
+        long total = 0;
+
+        // carry is the number of bytes left over from the last block, kept at
+        // the start of the buffer
+        int carry = 0;
+
+        while (true)
+        {
+            buffer.clear().position(carry);
+            int read = in.read(buffer);
+            boolean endOfInput = read < 0;
+
+            int length = carry + Math.max(read, 0);
+            total += Math.max(read, 0);
+
+            int written = filterBlock(bytes, length, endOfInput);
+
+            // write the whole filtered block
+            buffer.clear().limit(written);
+            while (buffer.hasRemaining())
+            {
+                out.write(buffer);
+            }
+
+            // move the start of a character cut off by the end of the block
+            // to the start of the buffer
+            carry = length - consumed;
+            System.arraycopy(bytes, consumed, bytes, 0, carry);
+
+            if (endOfInput)
+            {
+                return total;
+            }
+        }
+    }
+
+    // test method, filters the standard input to the standard output
+    public static void main(String[] args) throws IOException
+    {
+        TextFilter.create().filter(
+                new FileInputStream(FileDescriptor.in).getChannel(),
+                new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+}
@@ -1,7 +1,7 @@
 /*
     Author: Andreas Hammarstrand
     Written: 2020/09/18
-    Updated: 2020/09/28
+    Updated: 2026/10/18
     Purpose:
         TextUtility provides utility functions for texts. These functions
         are; filtering a text from non-alphabetical, non-newline, and non-blank
@@ -9,61 +9,51 @@
     Usage:
         The functions inside this class can be used by importing the class
         or text can be filtered by running the main method.
-        Requires `HashTable` to work.
+        The index tables are made by `SymbolTables` for a workload of
+        unordered lookups by word.
+        Requires `FrequencyTable`, `MappedTokenizer`, `PostingList`,
+        `PostingTable`, `SymbolTables`, and `TextFilter` to work.
  */
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class TextUtility
 {
     private static final int HASHTABLE_SIZE = 1024;
 
+    // index tables are only looked up while they are being built, by
+    // their words in no particular order
+    private static final SymbolTables.Workload INDEX_WORKLOAD =
+            new SymbolTables.Workload(HASHTABLE_SIZE, false, 1, String.class);
+
+    // bounds on the size of the byte ranges files are split into when indexed
+    // in parallel
+    private static final long MIN_RANGE_BYTES = 1 << 20;
+    private static final long MAX_RANGE_BYTES = 1 << 26;
+
     // filters the text from all characters that aren't newline, alphabetical
     // or blank.
-    // function filters by replacing unwanted characters with blank.
+    // function filters by replacing unwanted characters with blank, reading
+    // and writing the text in blocks through a `TextFilter`.
     public static void filterText(InputStream text, PrintStream output) throws IOException
     {
-        // loop through all the lines of text and filter them out to output.
-        Scanner input = new Scanner(text);
-
-        // loop while there are more data to go through
-        while (text.available() > 0)
-        {
-            // get the next available line of text, iterate through it, and
-            // output the filtered version.
-            String line = input.nextLine();
-            for (int i = 0; i < line.length(); i++)
-            {
-                // print currently indexed character if it's an alphabetical
-                // character, blank, or new line.
-                // otherwise print a blank.
-
-                char currentCharacter = line.charAt(i);
-
-                boolean charIsAllowed =
-                        Character.isAlphabetic(currentCharacter) ||
-                                currentCharacter == ' '          ||
-                                currentCharacter == '\n';
-
-                if (charIsAllowed)
-                {
-                    output.print(currentCharacter);
-                }
-                else
-                {
-                    output.print(' ');
-                }
-            }
+        TextFilter.create().filter(
+                Channels.newChannel(text),
+                Channels.newChannel(output));
 
-            // Scanner.nextLine() removes the end line separator, add it again
-            // here
-            output.println();
-        }
+        output.flush();
     }
 
     // get all words contained in the line of text
@@ -117,22 +107,219 @@ public class TextUtility
         return words;
     }
 
-    // creates a hash table containing the indices of each word from the
-    // scanner
-    public static HashTable<String, List<Long>> createIndexTable(
+    // adds the words in between spaces of `text[from, to)` to the table of
+    // indices, where `firstIndex` is the character index of `text[from]`
+    private static void indexWords(
+            String text,
+            int from,
+            int to,
+            long firstIndex,
+            SymbolTable<String, PostingList> indexes)
+    {
+        for (int i = from; i < to; i++)
+        {
+            // skip all spaces
+            if (text.charAt(i) == ' ')
+            {
+                continue;
+            }
+
+            // save the starting index of the word, then iterate till a space
+            // is found or end is found.
+            int startIndex = i;
+            for (; i < to &&
+                    text.charAt(i) != ' ';
+                 i++);
+
+            // make it lowercase so it's consistent across all instances
+            // of the word
+            String word = text
+                    .substring(startIndex, i)
+                    .toLowerCase();
+
+            // add the word to the table, creating its list of indices
+            // the first time the word is seen
+            indexes
+                    .computeIfAbsent(word, w -> new PostingList())
+                    .add(firstIndex + (startIndex - from));
+
+            // i will increment and thus skip the space that was found
+            // in the inner for loop
+        }
+    }
+
+    // creates a table containing the indices of each word from the
+    // scanner.
+    // the indices are 1-based character indices where every line separator
+    // counts as one character
+    public static SymbolTable<String, PostingList> createIndexTable(
             Scanner in)
     {
-        HashTable<String, List<Long>> indexes =
-                new HashTable<>(HASHTABLE_SIZE);
+        SymbolTable<String, PostingList> indexes =
+                SymbolTables.create(INDEX_WORKLOAD);
 
-        // count is the character index (1-based index) while the input
-        // has a next line
-        for (long count = 1; in.hasNextLine();)
+        // lineIndex is the character index of the first character of the
+        // line while the input has a next line
+        for (long lineIndex = 1; in.hasNextLine();)
         {
             // go through each line of text and select everything in between
             // spaces
             String line = in.nextLine();
-            for (int i = 0; i < line.length(); i++, count++)
+            indexWords(line, 0, line.length(), lineIndex, indexes);
+
+            // move past the line and its line separator
+            lineIndex += line.length() + 1;
+        }
+
+        return indexes;
+    }
+
+    // the index of one range of a file along with the number of characters
+    // in the range, the indices are relative to the start of the range
+    private static class RangeIndex
+    {
+        public final PostingTable postings = new PostingTable(HASHTABLE_SIZE);
+        public long characterCount;
+    }
+
+    // indexes the bytes [start, end) of a file on a fork join worker into a
+    // table of its own, reading the bytes through a memory mapping
+    private static class IndexRangeTask extends RecursiveTask<RangeIndex>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        public IndexRangeTask(FileChannel channel, long start, long end)
+        {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected RangeIndex compute()
+        {
+            RangeIndex result = new RangeIndex();
+
+            // every word is looked up once, in a table of the range taking
+            // the reused characters of the tokenizer, and only turned into a
+            // String the first time it is seen in the range.
+            // ranges start and end next to a space or newline, so the bytes
+            // of a character are never split between two ranges
+            try
+            {
+                result.characterCount = MappedTokenizer.tokenize(
+                        channel,
+                        start,
+                        end,
+                        1,
+                        result.postings::add);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            return result;
+        }
+    }
+
+    // creates a table containing the indices of each word from the
+    // file, the same as `createIndexTable(Scanner)` would, using all workers
+    // of the common fork join pool
+    public static SymbolTable<String, PostingList> createIndexTableParallel(
+            File file) throws IOException
+    {
+        return createIndexTableParallel(file, ForkJoinPool.commonPool());
+    }
+
+    // creates a table containing the indices of each word from the
+    // file, the same as `createIndexTable(Scanner)` would.
+    // the file is read as UTF-8 and split into byte ranges ending right
+    // after a space or a newline, each range is indexed on a worker of `pool`, and the tables
+    // of the ranges are merged with their indices moved to where the range
+    // starts in the file
+    public static SymbolTable<String, PostingList> createIndexTableParallel(
+            File file,
+            ForkJoinPool pool) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(
+                file.toPath(),
+                StandardOpenOption.READ))
+        {
+            long size = channel.size();
+
+            // a few ranges per worker so that uneven ranges even out, but
+            // never too small to be worth a task or too big for one array
+            long rangeCount = Math.max(
+                    (long)pool.getParallelism() * 4,
+                    size / MAX_RANGE_BYTES + 1);
+            long rangeSize = Math.max(MIN_RANGE_BYTES, size / rangeCount + 1);
+
+            List<IndexRangeTask> tasks = new ArrayList<>();
+            for (long start = 0; start < size;)
+            {
+                long end = start + rangeSize >= size
+                        ? size
+                        : MappedTokenizer.alignToWhitespace(
+                                channel,
+                                start + rangeSize);
+
+                tasks.add(new IndexRangeTask(channel, start, end));
+                start = end;
+            }
+
+            for (IndexRangeTask task : tasks)
+            {
+                pool.execute(task);
+            }
+
+            SymbolTable<String, PostingList> indexes =
+                    SymbolTables.create(INDEX_WORKLOAD);
+            long offset = 0;
+
+            // the indices of every range are moved by the number of
+            // characters before it; merging in order keeps every list of
+            // indices in ascending order. the lists of the first range are
+            // taken as they are
+            for (int i = 0; i < tasks.size(); i++)
+            {
+                RangeIndex range = tasks.get(i).join();
+                long rangeOffset = offset;
+
+                if (i == 0)
+                {
+                    range.postings.forEach(indexes::put);
+                }
+                else
+                {
+                    range.postings.forEach((word, postingList) -> indexes
+                            .computeIfAbsent(word, w -> new PostingList())
+                            .addAll(postingList, rangeOffset));
+                }
+
+                offset += range.characterCount;
+            }
+
+            return indexes;
+        }
+    }
+
+    // creates a frequency table containing the number of times each word
+    // occurs in the scanner, in lowercase
+    public static FrequencyTable countWords(Scanner in)
+    {
+        FrequencyTable frequencies = new FrequencyTable(HASHTABLE_SIZE);
+
+        while (in.hasNextLine())
+        {
+            // go through each line of text and count everything in between
+            // spaces
+            String line = in.nextLine();
+            for (int i = 0; i < line.length(); i++)
             {
                 // skip all spaces
                 if (line.charAt(i) == ' ')
@@ -140,43 +327,37 @@ public class TextUtility
                     continue;
                 }
 
-                // save the starting index of the word, then iterate till a space
-                // is found or end is found.
-                // also increment `count` for each character.
+                // save the starting index of the word, then iterate till a
+                // space is found or end is found
                 int startIndex = i;
                 for (; i < line.length() &&
-                        line.charAt(i) == ' ';
-                     i++, count++);
+                        line.charAt(i) != ' ';
+                     i++);
 
                 // make it lowercase so it's consistent across all instances
                 // of the word
-                String word = line
-                        .substring(startIndex, i)
-                        .toLowerCase();
+                frequencies.increment(
+                        line
+                                .substring(startIndex, i)
+                                .toLowerCase());
+            }
+        }
 
-                // add the word to the table
-                if (indexes.contains(word))
-                {
-                    indexes
-                            .get(word)
-                            .add(count);
-                }
-                else
-                {
-                    List<Long> wordIndexes = new ArrayList<>();
-                    wordIndexes.add(count);
+        return frequencies;
+    }
 
-                    indexes.put(
-                            word,
-                            wordIndexes);
-                }
+    // creates a frequency table containing the number of times each word
+    // occurs in the file, in lowercase. the file is read as UTF-8 through a
+    // memory mapping and a String is only created for each distinct word
+    public static FrequencyTable countWords(File file) throws IOException
+    {
+        FrequencyTable frequencies = new FrequencyTable(HASHTABLE_SIZE);
 
-                // i will increment and thus skip the space that was found
-                // in the inner for loop
-            }
-        }
+        MappedTokenizer.tokenize(
+                file,
+                (word, index) -> frequencies.increment(word));
 
-        return indexes;
+        return frequencies;
     }
 
     // works as test method and a way to filter an inputted text files
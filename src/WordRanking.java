@@ -0,0 +1,183 @@
+/*
+    Author: Andreas Hammarstrand
+    Written: 2026/10/18
+    Updated: 2026/10/18
+    Purpose:
+        WordRanking keeps words ordered from the most to the least common as
+        they are counted, so that the k:th most common word, or the k:th to
+        the k+n:th most common words, are found in O(log n + n) at any time
+        without sorting anything.
+        The words are kept in a `RedBlackTree` keyed by their count
+        and the word itself, more common words first and words as common as
+        each other in alphabetical order. Counting a word moves it in the
+        tree by removing its old key and putting the new one.
+        Every method is synchronized, so the ranking can be asked while
+        another thread is still counting.
+    Usage:
+        Import the class to rank words or run the main method with a file
+        containing only alphabetical, newline, and/or blank characters and
+        a 1-based rank to print the word of that rank.
+        Requires `FrequencyTable`, `MappedTokenizer`, `PostingList`,
+        `RedBlackTree`, and `SymbolTable` to work.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WordRanking
+{
+    // the key of a word in the tree
+    private static class RankedWord implements Comparable<RankedWord>
+    {
+        public final String word;
+        public final int count;
+
+        public RankedWord(String word, int count)
+        {
+            this.word = word;
+            this.count = count;
+        }
+
+        // the higher count comes first, then the word coming first in
+        // alphabetical order
+        @Override
+        public int compareTo(RankedWord other)
+        {
+            int comparison = Integer.compare(other.count, count);
+
+            return comparison != 0
+                    ? comparison
+                    : word.compareTo(other.word);
+        }
+
+        @Override
+        public String toString()
+        {
+            return word + "=" + count;
+        }
+    }
+
+    private final FrequencyTable counts = new FrequencyTable();
+    private final RedBlackTree<RankedWord, Void> ranking =
+            new RedBlackTree<>();
+
+    public WordRanking() {}
+
+    // returns a ranking of the counted words
+    public static WordRanking of(FrequencyTable frequencies)
+    {
+        WordRanking ranking = new WordRanking();
+
+        for (String word : frequencies)
+        {
+            ranking.add(word, frequencies.get(word));
+        }
+
+        return ranking;
+    }
+
+    // returns a ranking of the indexed words, counting each word as many
+    // times as it has indices
+    public static WordRanking of(SymbolTable<String, PostingList> indices)
+    {
+        WordRanking ranking = new WordRanking();
+
+        for (String word : indices)
+        {
+            ranking.add(word, indices.get(word).size());
+        }
+
+        return ranking;
+    }
+
+    // moves the word from its old count to its new count in the tree
+    private void move(String word, int oldCount, int newCount)
+    {
+        if (oldCount > 0)
+        {
+            ranking.remove(new RankedWord(word, oldCount));
+        }
+
+        ranking.put(new RankedWord(word, newCount), null);
+    }
+
+    // adds `amount` to the count of the word
+    public synchronized void add(String word, int amount)
+    {
+        int count = counts.add(word, amount);
+        move(word, count - amount, count);
+    }
+
+    // adds one to the count of the word. a String is only created for the
+    // word the first time it is seen
+    public synchronized void increment(CharSequence word)
+    {
+        String key = counts.incrementAndGetKey(word);
+        int count = counts.get(key);
+        move(key, count - 1, count);
+    }
+
+    // returns the number of distinct words
+    public synchronized int size()
+    {
+        return ranking.size();
+    }
+
+    // returns the count of the word, 0 if it hasn't been counted
+    public synchronized int count(String word)
+    {
+        return counts.getOrDefault(word, 0);
+    }
+
+    // returns the 0-based rank of the word, or -1 if it hasn't been counted
+    public synchronized int rank(String word)
+    {
+        int count = counts.getOrDefault(word, 0);
+
+        return count == 0
+                ? -1
+                : ranking.rank(new RankedWord(word, count));
+    }
+
+    // returns the word of the 0-based rank, or throws a NoSuchElement
+    // exception if there is no word of that rank
+    public synchronized String select(int rank)
+    {
+        return ranking.select(rank).word;
+    }
+
+    // returns the words of the 0-based ranks [from, to), ranks without a
+    // word are left out
+    public synchronized List<String> words(int from, int to)
+    {
+        List<String> words = new ArrayList<>();
+
+        for (RankedWord rankedWord : ranking.keysByRank(from, to))
+        {
+            words.add(rankedWord.word);
+        }
+
+        return words;
+    }
+
+    // test method, prints the word of the given rank in the given file
+    public static void main(String[] args) throws IOException
+    {
+        WordRanking ranking = new WordRanking();
+        MappedTokenizer.tokenize(
+                new File(args[0]),
+                (word, index) -> ranking.increment(word));
+
+        int rank = Integer.parseInt(args[1]) - 1;
+        String word = ranking.select(rank);
+
+        System.out.printf(
+                "%d. %s (%d times), of %d words\n",
+                rank + 1,
+                word,
+                ranking.count(word),
+                ranking.size());
+    }
+}